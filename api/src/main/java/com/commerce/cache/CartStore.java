@@ -0,0 +1,141 @@
+package com.commerce.cache;
+
+import com.commerce.repository.CartSpillRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+// In-memory carts keyed by user id: skuId -> quantity in insertion order. Each cart is an immutable map
+// replaced on every change, so reads need no lock and Caffeine re-weighs it (weight = lines). Changes to
+// one user's cart are serialized by a striped lock. Carts idle longer than the TTL are dropped; with spill
+// enabled, carts evicted for size (and all carts at shutdown) are written to cart_spill and read back on
+// the owner's next access. Without spill nothing here touches the database.
+//
+// The spill runs in Caffeine's eviction listener, which holds the entry while it is removed, and update()
+// writes through compute on the same entry, so an eviction either sees the updated cart or finishes
+// (row saved, user marked) before update() reads.
+@Slf4j
+@Component
+public class CartStore {
+    private final Cache<Integer, Map<Integer, Integer>> carts;
+    private final ReentrantLock[] locks;
+    private final CartSpillRepository cartSpillRepository;
+    private final boolean spillEnabled;
+    private final Duration idleTtl;
+    // Users with a spilled row, so a miss only costs a query when there is something to load.
+    private final Set<Integer> spilledUserIds = ConcurrentHashMap.newKeySet();
+    private final ExecutorService spillExecutor;
+
+    public CartStore(CartSpillRepository cartSpillRepository,
+                     @Value("${application.cart.max-lines:500000}") long maxLines,
+                     @Value("${application.cart.idle-ttl-minutes:1440}") long idleTtlMinutes,
+                     @Value("${application.cart.lock-stripes:64}") int lockStripes,
+                     @Value("${application.cart.spill.enabled:false}") boolean spillEnabled) {
+        this.cartSpillRepository = cartSpillRepository;
+        this.spillEnabled = spillEnabled;
+        this.idleTtl = Duration.ofMinutes(idleTtlMinutes);
+        this.locks = new ReentrantLock[Integer.highestOneBit(Math.max(1, lockStripes - 1)) << 1];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.spillExecutor = spillEnabled ? Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "cart-spill");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        Caffeine<Integer, Map<Integer, Integer>> builder = Caffeine.newBuilder()
+                .maximumWeight(maxLines)
+                .weigher((Integer userId, Map<Integer, Integer> lines) -> Math.max(1, lines.size()))
+                .expireAfterAccess(idleTtl);
+        if (spillEnabled) {
+            builder.executor(spillExecutor).evictionListener((Integer userId, Map<Integer, Integer> lines, RemovalCause cause) -> {
+                if (cause == RemovalCause.SIZE && userId != null && lines != null && !lines.isEmpty()) {
+                    spill(userId, lines);
+                }
+            });
+        }
+        this.carts = builder.build();
+        if (spillEnabled) {
+            spilledUserIds.addAll(cartSpillRepository.findUserIds(Instant.now().minus(idleTtl)));
+        }
+    }
+
+    public Map<Integer, Integer> get(int userId) {
+        Map<Integer, Integer> lines = carts.getIfPresent(userId);
+        if (lines != null || !spilledUserIds.contains(userId)) {
+            return lines != null ? lines : Map.of();
+        }
+        return update(userId, UnaryOperator.identity());
+    }
+
+    // Applies change to the current lines under the user's lock and stores the result; an empty result
+    // removes the cart.
+    public Map<Integer, Integer> update(int userId, UnaryOperator<Map<Integer, Integer>> change) {
+        ReentrantLock lock = locks[stripe(userId)];
+        lock.lock();
+        try {
+            Map<Integer, Integer> stored = carts.asMap().compute(userId, (id, current) -> {
+                if (current == null) {
+                    current = spilledUserIds.remove(id)
+                            ? cartSpillRepository.take(id, Instant.now().minus(idleTtl))
+                            : Map.of();
+                }
+                Map<Integer, Integer> updated = Collections.unmodifiableMap(new LinkedHashMap<>(change.apply(current)));
+                return updated.isEmpty() ? null : updated;
+            });
+            return stored != null ? stored : Map.of();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear(int userId) {
+        update(userId, lines -> Map.of());
+    }
+
+    public long size() {
+        carts.cleanUp();
+        return carts.estimatedSize();
+    }
+
+    // Marks the user first so a read that misses while the row is written goes to update(), which waits
+    // for this eviction to finish.
+    private void spill(int userId, Map<Integer, Integer> lines) {
+        spilledUserIds.add(userId);
+        try {
+            cartSpillRepository.save(userId, lines);
+        } catch (RuntimeException e) {
+            spilledUserIds.remove(userId);
+            log.warn("Could not spill cart of user {}", userId, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!spillEnabled) {
+            return;
+        }
+        spillExecutor.shutdown();
+        spillExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        cartSpillRepository.saveAll(Map.copyOf(carts.asMap()));
+    }
+
+    private int stripe(int userId) {
+        int hash = userId * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (locks.length - 1);
+    }
+}
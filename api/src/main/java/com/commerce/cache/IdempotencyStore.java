@@ -0,0 +1,103 @@
+package com.commerce.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Responses of requests sent with an Idempotency-Key, bounded by stored body bytes and kept for a fixed
+// TTL from the first request. An entry is claimed before the request runs, so a duplicate arriving while
+// the first is still executing finds the pending future and waits on it instead of running again.
+@Component
+public class IdempotencyStore {
+    // Rough per-entry overhead (key, fingerprint) counted on top of the headers and body.
+    private static final int ENTRY_OVERHEAD = 256;
+    private static final String IN_FLIGHT_ATTRIBUTE = IdempotencyStore.class.getName() + ".inFlight";
+
+    private final Cache<String, Entry> entries;
+    @Getter
+    private final long waitMillis;
+    @Getter
+    private final int maxBodyBytes;
+
+    public record StoredResponse(int status, String contentType, Map<String, List<String>> headers, byte[] body) {
+    }
+
+    public record Entry(byte[] fingerprint, CompletableFuture<StoredResponse> response) {
+        int weight() {
+            StoredResponse stored = response.isDone() && !response.isCompletedExceptionally() ? response.join() : null;
+            if (stored == null) {
+                return ENTRY_OVERHEAD;
+            }
+            int headerChars = 0;
+            for (Map.Entry<String, List<String>> header : stored.headers().entrySet()) {
+                headerChars += header.getKey().length() * header.getValue().size();
+                for (String value : header.getValue()) {
+                    headerChars += value.length();
+                }
+            }
+            return ENTRY_OVERHEAD + headerChars + stored.body().length;
+        }
+    }
+
+    // Work a request started but did not wait for, and the status its result is answered with.
+    public record InFlight(CompletableFuture<?> work, int successStatus) {
+    }
+
+    // For a request that gives up waiting while its operation may still take effect (an order left queued
+    // after a timeout): its Idempotency-Key, if any, stays claimed until work completes and then stores the
+    // real outcome, so a retry with the same key waits for or replays it instead of running it again.
+    public static void holdUntilDone(CompletableFuture<?> work, int successStatus) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(IN_FLIGHT_ATTRIBUTE, new InFlight(work, successStatus), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public static InFlight inFlight(HttpServletRequest request) {
+        return (InFlight) request.getAttribute(IN_FLIGHT_ATTRIBUTE);
+    }
+
+    public IdempotencyStore(@Value("${application.idempotency.max-bytes:33554432}") long maxBytes,
+                            @Value("${application.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                            @Value("${application.idempotency.wait-ms:10000}") long waitMillis,
+                            @Value("${application.idempotency.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Entry entry) -> entry.weight())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.waitMillis = waitMillis;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    // Returns null if the caller now owns the key and must run the request, otherwise the earlier entry.
+    public Entry claim(String key, Entry entry) {
+        return entries.asMap().putIfAbsent(key, entry);
+    }
+
+    // Publishes the response to waiting duplicates and keeps it for replays, re-weighed with its body.
+    public void complete(String key, Entry entry, StoredResponse response) {
+        entry.response().complete(response);
+        entries.asMap().replace(key, entry, entry);
+    }
+
+    // Publishes the outcome to waiting duplicates but forgets the key, so a later retry runs again.
+    public void release(String key, Entry entry, StoredResponse response) {
+        entries.asMap().remove(key, entry);
+        if (response != null) {
+            entry.response().complete(response);
+        } else {
+            entry.response().cancel(false);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.commerce.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// LINE's ES256 signing keys by kid, fetched from the JWKS endpoint and kept for ttl. An unknown kid
+// triggers a refetch (LINE rotated its keys), but at most once per min-refresh interval so a flood of
+// bad tokens can't turn into a flood of fetches. If a fetch fails the previous keys stay in use.
+//
+// Fetches run one at a time on a background thread with connect/read timeouts and no lock held. A known
+// but expired key keeps being served while its refetch runs; a token with an unknown kid waits for the
+// refetch for at most wait-ms.
+@Slf4j
+@Component
+public class LineJwksCache {
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Jwk(String kty, String crv, String kid, String x, String y) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Jwks(List<Jwk> keys) {
+    }
+
+    private record KeySet(Map<String, PublicKey> keys, long fetchedAtMillis) {
+    }
+
+    private static final long DEFAULT_WAIT_MILLIS = 5000;
+
+    private final Supplier<byte[]> source;
+    private final ObjectReader jwksReader;
+    private final long ttlMillis;
+    private final long minRefreshMillis;
+    private final long waitMillis;
+    private final ExecutorService fetcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "line-jwks-fetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // The fetch in progress, if any; callers needing fresh keys share it.
+    private final AtomicReference<CompletableFuture<KeySet>> refreshing = new AtomicReference<>();
+
+    private volatile KeySet keySet = new KeySet(Map.of(), Long.MIN_VALUE / 2);
+
+    @Autowired
+    public LineJwksCache(ObjectMapper objectMapper,
+                         @Value("${application.line.jwks-url:https://api.line.me/oauth2/v2.1/certs}") String jwksUrl,
+                         @Value("${application.line.jwks-ttl-seconds:86400}") long ttlSeconds,
+                         @Value("${application.line.jwks-min-refresh-seconds:60}") long minRefreshSeconds,
+                         @Value("${application.line.jwks-connect-timeout-ms:2000}") int connectTimeoutMillis,
+                         @Value("${application.line.jwks-read-timeout-ms:3000}") int readTimeoutMillis) {
+        this(objectMapper, jwksSource(jwksUrl, connectTimeoutMillis, readTimeoutMillis),
+                ttlSeconds, minRefreshSeconds, connectTimeoutMillis + readTimeoutMillis);
+    }
+
+    // source returns the raw JWKS document.
+    public LineJwksCache(ObjectMapper objectMapper, Supplier<byte[]> source, long ttlSeconds, long minRefreshSeconds) {
+        this(objectMapper, source, ttlSeconds, minRefreshSeconds, DEFAULT_WAIT_MILLIS);
+    }
+
+    public LineJwksCache(ObjectMapper objectMapper, Supplier<byte[]> source, long ttlSeconds, long minRefreshSeconds,
+                         long waitMillis) {
+        this.source = source;
+        this.jwksReader = objectMapper.readerFor(Jwks.class);
+        this.ttlMillis = ttlSeconds * 1000;
+        this.minRefreshMillis = minRefreshSeconds * 1000;
+        this.waitMillis = waitMillis;
+    }
+
+    private static Supplier<byte[]> jwksSource(String jwksUrl, int connectTimeoutMillis, int readTimeoutMillis) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMillis);
+        requestFactory.setReadTimeout(readTimeoutMillis);
+        RestClient restClient = RestClient.builder().requestFactory(requestFactory).build();
+        return () -> restClient.get().uri(jwksUrl).retrieve().body(byte[].class);
+    }
+
+    // Null when no key with this kid is known, even after a refresh.
+    public PublicKey get(String kid) {
+        KeySet current = keySet;
+        long now = System.currentTimeMillis();
+        PublicKey key = current.keys().get(kid);
+        boolean stale = now - current.fetchedAtMillis() >= ttlMillis;
+        if ((key == null || stale) && now - current.fetchedAtMillis() >= minRefreshMillis) {
+            CompletableFuture<KeySet> refresh = refresh(current);
+            if (key == null) {
+                key = await(refresh).keys().get(kid);
+            }
+        }
+        return key;
+    }
+
+    private KeySet await(CompletableFuture<KeySet> refresh) {
+        try {
+            return refresh.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("LINE signing keys were not refreshed within {} ms", waitMillis);
+        }
+        return keySet;
+    }
+
+    // Starts a fetch unless one is running or the keys changed since seen was read.
+    private CompletableFuture<KeySet> refresh(KeySet seen) {
+        CompletableFuture<KeySet> started = new CompletableFuture<>();
+        CompletableFuture<KeySet> running = refreshing.compareAndExchange(null, started);
+        if (running != null) {
+            return running;
+        }
+        if (keySet != seen) {
+            refreshing.set(null);
+            started.complete(keySet);
+            return started;
+        }
+        try {
+            fetcher.execute(() -> {
+                try {
+                    fetch(seen);
+                } finally {
+                    refreshing.set(null);
+                    started.complete(keySet);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(null);
+            started.complete(keySet);
+        }
+        return started;
+    }
+
+    private void fetch(KeySet seen) {
+        try {
+            Map<String, PublicKey> keys = new HashMap<>();
+            Jwks jwks = jwksReader.readValue(source.get());
+            if (jwks.keys() != null) {
+                for (Jwk jwk : jwks.keys()) {
+                    if ("EC".equals(jwk.kty()) && "P-256".equals(jwk.crv()) && jwk.kid() != null) {
+                        keys.put(jwk.kid(), toPublicKey(jwk));
+                    }
+                }
+            }
+            keySet = new KeySet(Map.copyOf(keys), System.currentTimeMillis());
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            log.warn("Could not refresh LINE signing keys", e);
+            keySet = new KeySet(seen.keys(), System.currentTimeMillis() - ttlMillis + minRefreshMillis);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetcher.shutdownNow();
+    }
+
+    private static PublicKey toPublicKey(Jwk jwk) throws GeneralSecurityException {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECPoint point = new ECPoint(
+                new BigInteger(1, Base64.getUrlDecoder().decode(jwk.x())),
+                new BigInteger(1, Base64.getUrlDecoder().decode(jwk.y())));
+        return KeyFactory.getInstance("EC")
+                .generatePublic(new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+    }
+}
@@ -0,0 +1,162 @@
+package com.commerce.cache;
+
+import com.commerce.model.response.CacheStatsResponse;
+import com.commerce.model.response.ProductResponse;
+import com.commerce.util.TransactionUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Read-through cache for the product catalog. Products are cached by id; queries only cache the
+// matching ids, so an update that does not touch searchable fields only has to drop one product entry.
+// Weights are measured in variants, which is what dominates the size of a ProductResponse.
+// Loads and invalidations are ordered by one version counter: loaders stamp each response with version()
+// read before they query, and invalidation records the next value. A load that started before an
+// invalidation is returned to its caller but never stays cached, so an update committing while a read is
+// loading can't leave the old product cached for the whole ttl. Invalidation versions are kept for the
+// ttl, longer than any response stamped before them can still be held.
+@Component
+public class ProductCache {
+    private final boolean enabled;
+    private final Cache<Integer, ProductResponse> products;
+    private final Cache<String, List<Integer>> queries;
+    private final Cache<Integer, Long> invalidatedAt;
+    private final AtomicLong clock = new AtomicLong();
+    private volatile long queriesInvalidatedAt;
+
+    public ProductCache(
+            @Value("${application.product.cache.enabled:true}") boolean enabled,
+            @Value("${application.product.cache.max-weight:200000}") long maxWeight,
+            @Value("${application.product.cache.query-max-weight:100000}") long queryMaxWeight,
+            @Value("${application.product.cache.ttl-seconds:600}") long ttlSeconds
+    ) {
+        this.enabled = enabled;
+        this.products = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Integer id, ProductResponse product) ->
+                        1 + (product.getVariants() != null ? product.getVariants().size() : 0))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.queries = Caffeine.newBuilder()
+                .maximumWeight(queryMaxWeight)
+                .weigher((String query, List<Integer> ids) -> 1 + ids.size())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    // To be read before loading a product and stored in ProductResponse.cacheVersion.
+    public long version() {
+        return clock.get();
+    }
+
+    // Version of the last invalidation of this product, 0 if none within the ttl.
+    public long invalidatedAt(int id) {
+        Long version = invalidatedAt.getIfPresent(id);
+        return version != null ? version : 0;
+    }
+
+    public boolean isCurrent(ProductResponse product) {
+        return product.getCacheVersion() >= invalidatedAt(product.getId());
+    }
+
+    public ProductResponse get(int id, Function<Integer, ProductResponse> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        ProductResponse product = products.get(id, loader);
+        dropIfStale(product);
+        return product;
+    }
+
+    // Returns the cached responses in the order of ids; ids the loader cannot find are skipped.
+    public List<ProductResponse> getAll(List<Integer> ids,
+                                        Function<Set<? extends Integer>, Map<Integer, ProductResponse>> loader) {
+        Map<Integer, ProductResponse> loaded = enabled
+                ? products.getAll(ids, loader)
+                : loader.apply(Set.copyOf(ids));
+        if (enabled) {
+            loaded.values().forEach(this::dropIfStale);
+        }
+        List<ProductResponse> result = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            ProductResponse product = loaded.get(id);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    // On a miss the whole result is loaded once and both the id list and the products are cached.
+    public List<ProductResponse> getList(String query,
+                                         Supplier<List<ProductResponse>> loader,
+                                         Function<Set<? extends Integer>, Map<Integer, ProductResponse>> byIdLoader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        List<Integer> ids = queries.getIfPresent(query);
+        if (ids != null) {
+            return getAll(ids, byIdLoader);
+        }
+        long version = clock.get();
+        List<ProductResponse> responses = loader.get();
+        putAll(responses);
+        queries.put(query, responses.stream().map(ProductResponse::getId).toList());
+        if (version < queriesInvalidatedAt) {
+            queries.invalidate(query);
+        }
+        return responses;
+    }
+
+    private void putAll(Collection<ProductResponse> responses) {
+        for (ProductResponse response : responses) {
+            products.put(response.getId(), response);
+            dropIfStale(response);
+        }
+    }
+
+    // Checked after the put: an invalidation either ran before (and its version is seen here) or runs
+    // after (and removes the entry itself).
+    private void dropIfStale(ProductResponse product) {
+        if (!isCurrent(product)) {
+            products.asMap().remove(product.getId(), product);
+        }
+    }
+
+    public void invalidateProduct(int id) {
+        TransactionUtil.afterCommit(() -> {
+            invalidatedAt.put(id, clock.incrementAndGet());
+            products.invalidate(id);
+        });
+    }
+
+    public void invalidateQueries() {
+        TransactionUtil.afterCommit(() -> {
+            queriesInvalidatedAt = clock.incrementAndGet();
+            queries.invalidateAll();
+        });
+    }
+
+    public List<CacheStatsResponse> stats() {
+        return List.of(
+                CacheStatsResponse.from("products", products),
+                CacheStatsResponse.from("productQueries", queries)
+        );
+    }
+}
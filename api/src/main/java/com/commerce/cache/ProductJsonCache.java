@@ -0,0 +1,76 @@
+package com.commerce.cache;
+
+import com.commerce.model.response.CacheStatsResponse;
+import com.commerce.model.response.ProductResponse;
+import com.commerce.util.TransactionUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// Encoded JSON of each product and view, tagged with the ProductCache version its response was loaded
+// at. A fragment is only stored and served when that version is not older than the product's last
+// invalidation in ProductCache, so JSON encoded from data read before a concurrent update is never cached.
+@Component
+public class ProductJsonCache {
+    private final ProductCache productCache;
+    private final boolean enabled;
+    private final Cache<FragmentKey, Fragment> fragments;
+
+    private record FragmentKey(int id, boolean compact) {
+    }
+
+    private record Fragment(long version, byte[] json) {
+    }
+
+    public ProductJsonCache(
+            ProductCache productCache,
+            @Value("${application.product.json-cache.enabled:false}") boolean enabled,
+            @Value("${application.product.json-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${application.product.json-cache.ttl-seconds:600}") long ttlSeconds
+    ) {
+        this.productCache = productCache;
+        this.enabled = enabled;
+        this.fragments = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((FragmentKey key, Fragment fragment) -> fragment.json().length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public byte[] get(ProductResponse product, boolean compact, Function<ProductResponse, byte[]> encoder) {
+        var key = new FragmentKey(product.getId(), compact);
+        long current = productCache.invalidatedAt(key.id());
+        Fragment fragment = fragments.getIfPresent(key);
+        if (fragment != null && fragment.version() >= current) {
+            return fragment.json();
+        }
+        byte[] json = encoder.apply(product);
+        if (product.getCacheVersion() >= current) {
+            fragments.put(key, new Fragment(product.getCacheVersion(), json));
+        }
+        return json;
+    }
+
+    public void invalidate(int id) {
+        if (!enabled) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> {
+            fragments.invalidate(new FragmentKey(id, false));
+            fragments.invalidate(new FragmentKey(id, true));
+        });
+    }
+
+    public CacheStatsResponse stats() {
+        return CacheStatsResponse.from("productJson", fragments);
+    }
+}
@@ -0,0 +1,47 @@
+package com.commerce.cache;
+
+import com.commerce.repository.RefreshTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+// Stored refresh tokens by hash, so repeated refreshes are answered from memory. Entries are added on
+// issue and dropped on logout; misses are not cached. A token deleted on another instance stays usable
+// here for at most the TTL.
+@Component
+public class RefreshTokenCache {
+    public record StoredRefreshToken(int userId, Instant expiresAt) {
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Cache<String, StoredRefreshToken> tokens;
+
+    public RefreshTokenCache(RefreshTokenRepository refreshTokenRepository,
+                             @Value("${application.security.refresh-token.cache.max-size:100000}") long maxSize,
+                             @Value("${application.security.refresh-token.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public Optional<StoredRefreshToken> get(String tokenHash) {
+        return Optional.ofNullable(tokens.get(tokenHash, key -> refreshTokenRepository.findStoredToken(key)
+                .map(stored -> new StoredRefreshToken(stored.getUserId(), stored.getExpirationTime()))
+                .orElse(null)));
+    }
+
+    public void put(String tokenHash, StoredRefreshToken token) {
+        tokens.put(tokenHash, token);
+    }
+
+    public void evict(String tokenHash) {
+        tokens.invalidate(tokenHash);
+    }
+}
@@ -0,0 +1,84 @@
+package com.commerce.cache;
+
+import com.commerce.repository.RevokedTokenRepository;
+import com.commerce.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Denylist of revoked access-token ids. isRevoked() asks a Bloom filter first, so for the usual token that
+// was never revoked it is a few hash probes with no allocation and no lock; only filter hits look at the
+// map of ids and expiries. Revocations are written to revoked_token and applied locally at once; the
+// periodic rebuild loads other instances' revocations and rebuilds the filter without expired ids.
+@Slf4j
+@Component
+public class RevokedTokenStore {
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Object lock = new Object();
+
+    private volatile Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    public RevokedTokenStore(RevokedTokenRepository revokedTokenRepository,
+                             @Value("${application.security.revocation.expected-insertions:100000}") long expectedInsertions,
+                             @Value("${application.security.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = BloomFilter.create(expectedInsertions, falsePositiveRate);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.save(tokenId, expiresAt);
+        synchronized (lock) {
+            revoked.put(tokenId, expiresAt.toEpochMilli());
+            filter.put(tokenId);
+        }
+    }
+
+    // The new map and filter are built from the table plus any local entries still live, then swapped in
+    // together under the lock so a concurrent revoke lands in one or the other set, never neither.
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${application.security.revocation.rebuild-interval-ms:60000}")
+    public void rebuild() {
+        Map<String, Long> loaded = revokedTokenRepository.findActive(Instant.now());
+        synchronized (lock) {
+            long now = System.currentTimeMillis();
+            Map<String, Long> live = new ConcurrentHashMap<>(loaded);
+            revoked.forEach((tokenId, expiresAt) -> {
+                if (expiresAt > now) {
+                    live.putIfAbsent(tokenId, expiresAt);
+                }
+            });
+            live.values().removeIf(expiresAt -> expiresAt <= now);
+            BloomFilter rebuilt = BloomFilter.create(Math.max(expectedInsertions, 2L * live.size()), falsePositiveRate);
+            live.keySet().forEach(rebuilt::put);
+            revoked = live;
+            filter = rebuilt;
+        }
+        log.debug("Rebuilt revoked token filter with {} ids", revoked.size());
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
@@ -0,0 +1,42 @@
+package com.commerce.cache;
+
+import com.commerce.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Current token epoch of every user whose tokens were ever revoked, so the auth filter can reject old
+// tokens without a query. Local revocations are applied immediately; the periodic reload picks up
+// revocations made by other instances. An advancing epoch also drops the user's cached entity, whose role
+// and epoch are what /auth/refresh-token issues the next access token from.
+@Component
+@RequiredArgsConstructor
+public class TokenEpochCache {
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final Map<Integer, Integer> epochs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${application.security.jwt.epoch-refresh-interval-ms:30000}")
+    public void reload() {
+        userRepository.findRevokedTokenEpochs().forEach(row -> advance(row.getId(), row.getTokenEpoch()));
+    }
+
+    public boolean isCurrent(int userId, int tokenEpoch) {
+        return tokenEpoch >= epochs.getOrDefault(userId, 0);
+    }
+
+    // Epochs only move forward, so a stale reload can't undo a newer revocation. Racing advances may
+    // evict twice, which is harmless.
+    public void advance(int userId, int epoch) {
+        int previous = epochs.getOrDefault(userId, 0);
+        epochs.merge(userId, epoch, Math::max);
+        if (epoch > previous) {
+            userCache.evict(userId);
+        }
+    }
+}
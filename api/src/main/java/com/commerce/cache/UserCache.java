@@ -0,0 +1,38 @@
+package com.commerce.cache;
+
+import com.commerce.model.entity.User;
+import com.commerce.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Full User entities (detached) for the paths that need more than the token claims, e.g. tokens issued
+// before role and epoch were claims. Changes made through UserService evict the entry; changes made on
+// other instances show up after the TTL.
+@Component
+public class UserCache {
+    private final UserRepository userRepository;
+    private final Cache<Integer, User> users;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${application.user.cache.max-size:10000}") long maxSize,
+                     @Value("${application.user.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public Optional<User> get(int id) {
+        return Optional.ofNullable(users.get(id, key -> userRepository.findById(key).orElse(null)));
+    }
+
+    public void evict(int id) {
+        users.invalidate(id);
+    }
+}
@@ -0,0 +1,104 @@
+package com.commerce.cache;
+
+import com.commerce.repository.UserRepository;
+import com.commerce.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Bloom filter over every username (folded to lower case without accents, matching the accent- and
+// case-insensitive collation of the unique key), so an availability probe for a name nobody has is answered without a query; only possible matches are
+// checked against users. Local signups are added at once; the periodic rebuild picks up other
+// instances' signups.
+@Slf4j
+@Component
+public class UsernameIndex {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final AtomicLong probes = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+
+    private volatile BloomFilter filter;
+    // Set while a rebuild is scanning, so names added meanwhile reach the new filter too.
+    private volatile BloomFilter building;
+
+    public UsernameIndex(UserRepository userRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${application.user.username-index.expected-insertions:1000000}") long expectedInsertions,
+                         @Value("${application.user.username-index.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = BloomFilter.create(expectedInsertions, falsePositiveRate);
+    }
+
+    public boolean isAvailable(String username) {
+        probes.incrementAndGet();
+        if (!filter.mightContain(normalize(username))) {
+            return true;
+        }
+        queries.incrementAndGet();
+        return !userRepository.existsByUsername(username);
+    }
+
+    public void add(String username) {
+        String key = normalize(username);
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+        filter.put(key);
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${application.user.username-index.rebuild-interval-ms:600000}",
+            initialDelayString = "${application.user.username-index.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        long count = userRepository.count();
+        BloomFilter next = BloomFilter.create(Math.max(expectedInsertions, 2 * count), falsePositiveRate);
+        building = next;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> usernames = userRepository.streamUsernames()) {
+                    usernames.forEach(username -> next.put(normalize(username)));
+                }
+            });
+            filter = next;
+        } finally {
+            building = null;
+        }
+        log.debug("Rebuilt username index for {} users", count);
+    }
+
+    // Probes answered so far, and how many of them needed a query.
+    public long probes() {
+        return probes.get();
+    }
+
+    public long queries() {
+        return queries.get();
+    }
+
+    // Folding more names together than the collation does only costs a query; folding fewer would report a
+    // taken name as free. đ has no decomposition, so it is mapped by hand.
+    private static String normalize(String username) {
+        String stripped = MARKS.matcher(Normalizer.normalize(username, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.toLowerCase(Locale.ROOT).replace('đ', 'd');
+    }
+}
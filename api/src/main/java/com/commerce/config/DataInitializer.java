@@ -1,6 +1,7 @@
 package com.commerce.config;
 
 
+import com.commerce.cache.UsernameIndex;
 import com.commerce.model.entity.Role;
 import com.commerce.model.entity.User;
 import com.commerce.repository.UserRepository;
@@ -14,10 +15,12 @@ import java.util.Arrays;
 public class DataInitializer implements CommandLineRunner {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UsernameIndex usernameIndex;
 
-    public DataInitializer(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public DataInitializer(UserRepository userRepository, PasswordEncoder passwordEncoder, UsernameIndex usernameIndex) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.usernameIndex = usernameIndex;
     }
 
     @Override
@@ -36,6 +39,8 @@ public class DataInitializer implements CommandLineRunner {
             admin2.setEmail("admin2@gmail.com");
 
             userRepository.saveAll(Arrays.asList(admin1, admin2));
+            usernameIndex.add(admin1.getUsername());
+            usernameIndex.add(admin2.getUsername());
         }
 
         if (userRepository.findByUsername("user1").isEmpty()) {
@@ -46,6 +51,7 @@ public class DataInitializer implements CommandLineRunner {
             user.setEmail("user@gmail.com");
 
             userRepository.save(user);
+            usernameIndex.add(user.getUsername());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.commerce.config;
+
+import com.commerce.cache.ProductJsonCache;
+import com.commerce.model.response.PaginationResult;
+import com.commerce.model.response.ProductResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+// Writes product payloads by concatenating cached per-product JSON fragments instead of running
+// Jackson over the whole ProductResponse tree. Only active when the JSON cache is enabled;
+// otherwise the regular Jackson converter handles these types.
+public class ProductJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    private static final byte COMMA = ',';
+
+    private final ProductJsonCache jsonCache;
+    private final ObjectMapper objectMapper;
+
+    public ProductJsonHttpMessageConverter(ProductJsonCache jsonCache, ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.jsonCache = jsonCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return jsonCache.isEnabled();
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return jsonCache.isEnabled() && canWrite(mediaType) && isProductPayload(type != null ? type : clazz);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return jsonCache.isEnabled() && canWrite(mediaType) && clazz == ProductResponse.class;
+    }
+
+    private static boolean isProductPayload(Type type) {
+        ResolvableType resolvable = ResolvableType.forType(type);
+        Class<?> raw = resolvable.toClass();
+        if (raw == ProductResponse.class) {
+            return true;
+        }
+        if (List.class.isAssignableFrom(raw) || raw == PaginationResult.class) {
+            return resolvable.getGeneric(0).toClass() == ProductResponse.class;
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        OutputStream out = outputMessage.getBody();
+        if (value instanceof ProductResponse product) {
+            out.write(encode(product));
+        } else if (value instanceof List<?> products) {
+            writeArray((List<ProductResponse>) products, out);
+        } else if (value instanceof PaginationResult<?> page) {
+            writePage((PaginationResult<ProductResponse>) page, out);
+        }
+        out.flush();
+    }
+
+    private void writePage(PaginationResult<ProductResponse> page, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.writeStartObject();
+        generator.writeFieldName("data");
+        generator.writeStartArray();
+        generator.flush();
+        writeFragments(page.getData(), out);
+        generator.writeEndArray();
+        generator.writeObjectField("pageInfo", page.getPageInfo());
+        if (page.getFacets() != null) {
+            generator.writeObjectField("facets", page.getFacets());
+        }
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    private void writeArray(List<ProductResponse> products, OutputStream out) throws IOException {
+        out.write('[');
+        writeFragments(products, out);
+        out.write(']');
+    }
+
+    private void writeFragments(List<ProductResponse> products, OutputStream out) throws IOException {
+        for (int i = 0; i < products.size(); i++) {
+            if (i > 0) {
+                out.write(COMMA);
+            }
+            out.write(encode(products.get(i)));
+        }
+    }
+
+    private byte[] encode(ProductResponse product) {
+        return jsonCache.get(product, isCompact(product), response -> {
+            try {
+                return objectMapper.writeValueAsBytes(response);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Products without variants serialize identically in both views, so this check is exact.
+    private static boolean isCompact(ProductResponse product) {
+        return product.getVariants() != null
+                && product.getVariants().stream().anyMatch(variant -> variant.getProduct() == null);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Product JSON converter is write-only", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+            throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Product JSON converter is write-only", inputMessage);
+    }
+}
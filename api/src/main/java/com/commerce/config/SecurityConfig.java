@@ -1,6 +1,9 @@
 package com.commerce.config;
 
+import com.commerce.cache.IdempotencyStore;
+import com.commerce.filter.IdempotencyFilter;
 import com.commerce.filter.JwtAuthFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,6 +29,8 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
     private final List<String> allowOrigins = List.of(
             "http://localhost:5173",
             "http://localhost:5174"
@@ -39,6 +44,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth.anyRequest().permitAll()) // method-level annotations will handle security
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(new IdempotencyFilter(idempotencyStore, objectMapper), UsernamePasswordAuthenticationFilter.class)
                 .exceptionHandling(ex -> {
                     ex.authenticationEntryPoint((request, response, authException) -> {
                         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
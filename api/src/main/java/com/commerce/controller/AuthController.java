@@ -1,21 +1,26 @@
 package com.commerce.controller;
 
-import com.commerce.model.entity.RefreshToken;
+import com.commerce.cache.RefreshTokenCache.StoredRefreshToken;
+import com.commerce.cache.UserCache;
 import com.commerce.model.entity.User;
 import com.commerce.model.exception.AppException;
 import com.commerce.model.exception.ErrorCode;
 import com.commerce.model.request.LoginRequest;
 import com.commerce.model.request.SignUpRequest;
 import com.commerce.model.response.AuthResponse;
+import com.commerce.model.response.SessionSweepStatsResponse;
 import com.commerce.model.response.UserResponse;
+import com.commerce.model.response.UsernameAvailabilityResponse;
 import com.commerce.service.AuthService;
 import com.commerce.service.JwtService;
 import com.commerce.service.RefreshTokenService;
+import com.commerce.service.SessionSweeper;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 @RequestMapping("/api/auth")
@@ -25,6 +30,8 @@ public class AuthController {
     private final AuthService authService;
     private final RefreshTokenService refreshTokenService;
     private final JwtService jwtService;
+    private final UserCache userCache;
+    private final SessionSweeper sessionSweeper;
 
     @PostMapping("/login")
     @ResponseStatus(HttpStatus.OK)
@@ -32,13 +39,7 @@ public class AuthController {
         User user = authService.login(request);
         String jwtToken = jwtService.generateToken(user);
         String refreshToken = jwtService.generateRefreshToken(user);
-        refreshTokenService.save(
-                RefreshToken.builder()
-                        .token(refreshToken)
-                        .user(user)
-                        .expirationTime(jwtService.extractExpirationInstant(refreshToken))
-                        .build()
-        );
+        refreshTokenService.save(user, refreshToken, jwtService.extractExpirationInstant(refreshToken));
 
         ResponseCookie cookie = ResponseCookie.from("refreshToken", refreshToken)
                 .httpOnly(true)
@@ -58,10 +59,15 @@ public class AuthController {
 
     @PostMapping("/logout")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void logout(@CookieValue(name = "refreshToken", required = false) String refreshToken, HttpServletResponse response) {
+    public void logout(@CookieValue(name = "refreshToken", required = false) String refreshToken,
+                       @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                       HttpServletResponse response) {
         if (refreshToken != null) {
             refreshTokenService.delete(refreshToken);
         }
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            authService.revokeAccessToken(authorization.substring(7));
+        }
         ResponseCookie cookie = ResponseCookie.from("refreshToken", "")
                 .httpOnly(true)
                 .secure(true)
@@ -79,7 +85,6 @@ public class AuthController {
             throw new AppException(ErrorCode.INVALID_CREDENTIALS, null);
         }
 
-        var storedRefreshToken = refreshTokenService.findById(refreshToken);
         if(!jwtService.isTokenValid(refreshToken)){
             refreshTokenService.delete(refreshToken);
             var cookie = ResponseCookie.from("refreshToken", "")
@@ -90,10 +95,12 @@ public class AuthController {
                     .maxAge(0)
                     .build();
             response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
-
+            throw new AppException(ErrorCode.REFRESH_TOKEN_EXPIRED, null);
         }
 
-        User user = storedRefreshToken.getUser();
+        StoredRefreshToken storedRefreshToken = refreshTokenService.find(refreshToken);
+        User user = userCache.get(storedRefreshToken.userId())
+                .orElseThrow(() -> new AppException(ErrorCode.INVALID_REFRESH_TOKEN, null));
         var newAccessToken = jwtService.generateToken(user);
         return AuthResponse.builder()
                 .accessToken(newAccessToken)
@@ -107,13 +114,7 @@ public class AuthController {
         User user = authService.register(request);
         String jwtToken = jwtService.generateToken(user);
         String refreshToken = jwtService.generateRefreshToken(user);
-        refreshTokenService.save(
-                RefreshToken.builder()
-                        .token(refreshToken)
-                        .user(user)
-                        .expirationTime(jwtService.extractExpirationInstant(refreshToken))
-                        .build()
-        );
+        refreshTokenService.save(user, refreshToken, jwtService.extractExpirationInstant(refreshToken));
 
         ResponseCookie cookie = ResponseCookie.from("refreshToken", refreshToken)
                 .httpOnly(true)
@@ -130,5 +131,18 @@ public class AuthController {
                 .user(UserResponse.from(user))
                 .build();
     }
-}
 
+    @GetMapping("/username-availability")
+    public UsernameAvailabilityResponse usernameAvailability(@RequestParam("username") String username) {
+        return UsernameAvailabilityResponse.builder()
+                .username(username)
+                .available(authService.isUsernameAvailable(username))
+                .build();
+    }
+
+    @GetMapping("/session-sweep-stats")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public SessionSweepStatsResponse sessionSweepStats() {
+        return sessionSweeper.stats();
+    }
+}
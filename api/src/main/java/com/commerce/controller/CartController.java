@@ -0,0 +1,58 @@
+package com.commerce.controller;
+
+import com.commerce.model.entity.User;
+import com.commerce.model.request.CartItemRequest;
+import com.commerce.model.request.CheckoutRequest;
+import com.commerce.model.response.CartResponse;
+import com.commerce.model.response.OrderResponse;
+import com.commerce.service.CartService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cart")
+@RequiredArgsConstructor
+public class CartController {
+    private final CartService cartService;
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public CartResponse get(@AuthenticationPrincipal User user) {
+        return cartService.get(user.getId());
+    }
+
+    @PostMapping("/items")
+    @PreAuthorize("isAuthenticated()")
+    public CartResponse add(@AuthenticationPrincipal User user, @RequestBody CartItemRequest request) {
+        return cartService.add(user.getId(), request);
+    }
+
+    @PutMapping("/items")
+    @PreAuthorize("isAuthenticated()")
+    public CartResponse set(@AuthenticationPrincipal User user, @RequestBody CartItemRequest request) {
+        return cartService.set(user.getId(), request);
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PreAuthorize("isAuthenticated()")
+    public void clear(@AuthenticationPrincipal User user) {
+        cartService.clear(user.getId());
+    }
+
+    @GetMapping("/validation")
+    @PreAuthorize("isAuthenticated()")
+    public CartResponse validate(@AuthenticationPrincipal User user) {
+        return cartService.validate(user.getId());
+    }
+
+    @PostMapping("/checkout")
+    @ResponseStatus(HttpStatus.CREATED)
+    @PreAuthorize("isAuthenticated()")
+    public OrderResponse checkout(@AuthenticationPrincipal User user, @RequestBody CheckoutRequest request) {
+        return cartService.checkout(user.getId(), request);
+    }
+}
@@ -0,0 +1,45 @@
+package com.commerce.controller;
+
+import com.commerce.model.entity.User;
+import com.commerce.model.request.PlaceOrderRequest;
+import com.commerce.model.response.OrderResponse;
+import com.commerce.service.OrderService;
+import com.commerce.service.PendingOrderEntryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/orders")
+@RequiredArgsConstructor
+public class OrderController {
+    private final OrderService orderService;
+    private final PendingOrderEntryService pendingOrderEntryService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @PreAuthorize("isAuthenticated()")
+    public OrderResponse place(@AuthenticationPrincipal User user, @RequestBody PlaceOrderRequest request) {
+        return orderService.place(user.getId(), request);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public OrderResponse get(@AuthenticationPrincipal User user, @PathVariable("id") Long id) {
+        return orderService.get(id, user);
+    }
+
+    @GetMapping("/pending-entries")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> pendingEntries(@RequestParam(defaultValue = "0") long afterId,
+                                                                @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> pendingOrderEntryService.write(afterId, limit, out));
+    }
+}
@@ -0,0 +1,44 @@
+package com.commerce.controller;
+
+import com.commerce.model.request.PricingRuleRequest;
+import com.commerce.model.response.PricingRuleResponse;
+import com.commerce.service.PricingRuleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/pricing-rules")
+@RequiredArgsConstructor
+public class PricingRuleController {
+    private final PricingRuleService pricingRuleService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public List<PricingRuleResponse> list(@RequestParam(required = false) Integer skuId) {
+        return pricingRuleService.list(skuId);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public PricingRuleResponse create(@RequestBody PricingRuleRequest request) {
+        return pricingRuleService.create(request);
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public PricingRuleResponse update(@PathVariable("id") Long id, @RequestBody PricingRuleRequest request) {
+        return pricingRuleService.update(id, request);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public void delete(@PathVariable("id") Long id) {
+        pricingRuleService.delete(id);
+    }
+}
@@ -1,7 +1,11 @@
 package com.commerce.controller;
 
 import com.commerce.model.request.CreateProductRequest;
+import com.commerce.model.request.ProductPageRequest;
+import com.commerce.model.request.ProductView;
 import com.commerce.model.request.UpdateProductRequest;
+import com.commerce.model.response.CacheStatsResponse;
+import com.commerce.model.response.PaginationResult;
 import com.commerce.model.response.ProductResponse;
 import com.commerce.service.ProductService;
 import lombok.RequiredArgsConstructor;
@@ -26,8 +30,27 @@ public class ProductController {
 
     @GetMapping()
     @PreAuthorize("isAuthenticated()")
-    public List<ProductResponse> list(@RequestParam(defaultValue = "") String q) {
-        return productService.list(q);
+    public List<ProductResponse> list(@RequestParam(defaultValue = "") String q,
+                                      @RequestParam(required = false) String view) {
+        return productService.list(q, ProductView.fromParam(view));
+    }
+
+    @GetMapping(params = "size")
+    @PreAuthorize("isAuthenticated()")
+    public PaginationResult<ProductResponse> page(ProductPageRequest request) {
+        return productService.page(request);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ProductResponse get(@PathVariable("id") Integer id, @RequestParam(required = false) String view) {
+        return productService.get(id, ProductView.fromParam(view));
+    }
+
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public List<CacheStatsResponse> cacheStats() {
+        return productService.cacheStats();
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,50 @@
+package com.commerce.controller;
+
+import com.commerce.model.request.StockRequest;
+import com.commerce.model.response.StockLevelResponse;
+import com.commerce.model.response.StockMovementResponse;
+import com.commerce.service.StockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stock")
+@RequiredArgsConstructor
+public class StockController {
+    private final StockService stockService;
+
+    // Customers reserve stock only by placing an order; a bare reservation is never released on its own.
+    @PostMapping("/reservations")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public void reserve(@RequestBody StockRequest request) {
+        stockService.reserve(request.getItems());
+    }
+
+    @PostMapping("/releases")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public void release(@RequestBody StockRequest request) {
+        stockService.release(request.getItems());
+    }
+
+    @GetMapping("/{skuId}/level")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public StockLevelResponse level(@PathVariable("skuId") Integer skuId,
+                                    @RequestParam(required = false) Instant at) {
+        return stockService.quantityAsOf(skuId, at == null ? Instant.now() : at);
+    }
+
+    @GetMapping("/{skuId}/movements")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public List<StockMovementResponse> movements(@PathVariable("skuId") Integer skuId,
+                                                 @RequestParam(defaultValue = "0") long afterId,
+                                                 @RequestParam(defaultValue = "100") int limit) {
+        return stockService.movements(skuId, afterId, Math.max(1, Math.min(limit, 500)));
+    }
+}
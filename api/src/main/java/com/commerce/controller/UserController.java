@@ -0,0 +1,21 @@
+package com.commerce.controller;
+
+import com.commerce.model.request.UpdateRoleRequest;
+import com.commerce.model.response.UserResponse;
+import com.commerce.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserController {
+    private final UserService userService;
+
+    @PutMapping("/{id}/role")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public UserResponse changeRole(@PathVariable("id") Integer id, @RequestBody UpdateRoleRequest request) {
+        return userService.changeRole(id, request.getRole());
+    }
+}
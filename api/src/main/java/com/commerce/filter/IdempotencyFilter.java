@@ -0,0 +1,280 @@
+package com.commerce.filter;
+
+import com.commerce.cache.IdempotencyStore;
+import com.commerce.cache.IdempotencyStore.Entry;
+import com.commerce.cache.IdempotencyStore.InFlight;
+import com.commerce.cache.IdempotencyStore.StoredResponse;
+import com.commerce.model.entity.User;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import com.commerce.model.exception.ErrorDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Makes mutating requests that carry an Idempotency-Key safe to retry. Keys are scoped to the signed-in
+// caller, method and URI; anonymous requests are passed through, since callers cannot be told apart. The
+// first request runs and its response is stored unless it is a 5xx or a transient refusal (408, 409, 425,
+// 429) that a retry should run again; duplicates wait for it and get the same status, headers and body
+// with Idempotent-Replayed: true, without reaching the controller. Reusing a key with a different body is
+// rejected, and bodies above the store's max-body-bytes are refused. A request that gave up on work still
+// in flight (IdempotencyStore.holdUntilDone) keeps its key claimed until that work completes. Registered in
+// the security chain after authentication, not as a bean, so it runs exactly once and sees the caller.
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<Integer> TRANSIENT_STATUSES = Set.of(408, 409, 425, 429);
+    // Sent with the stored status and body instead of being replayed.
+    private static final Set<String> UNSTORED_HEADERS = Set.of("content-type", "content-length", "transfer-encoding");
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !METHODS.contains(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        String scope = scope();
+        if (scope == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, ErrorCode.INVALID_IDEMPOTENCY_KEY, null);
+            return;
+        }
+        int maxBodyBytes = store.getMaxBodyBytes();
+        byte[] body = request.getContentLengthLong() > maxBodyBytes
+                ? null
+                : request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body == null || body.length > maxBodyBytes) {
+            writeError(response, ErrorCode.IDEMPOTENT_REQUEST_TOO_LARGE, Map.of("maxBytes", String.valueOf(maxBodyBytes)));
+            return;
+        }
+        String key = scope + ' ' + request.getMethod() + ' ' + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "") + ' ' + idempotencyKey;
+        Entry entry = new Entry(sha256(body), new CompletableFuture<>());
+        Entry existing = store.claim(key, entry);
+        if (existing != null) {
+            replay(existing, entry.fingerprint(), response);
+            return;
+        }
+
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        StoredResponse stored = null;
+        try {
+            filterChain.doFilter(new CachedBodyRequest(request, body), captured);
+            stored = new StoredResponse(captured.getStatus(), captured.getContentType(), headers(captured),
+                    captured.getContentAsByteArray());
+        } finally {
+            InFlight inFlight = IdempotencyStore.inFlight(request);
+            if (stored != null && isStorable(stored.status()) && !request.isAsyncStarted()) {
+                store.complete(key, entry, stored);
+            } else if (inFlight != null) {
+                inFlight.work().whenComplete((result, error) -> settle(key, entry, inFlight.successStatus(), result, error));
+            } else {
+                store.release(key, entry, stored);
+            }
+            captured.copyBodyToResponse();
+        }
+    }
+
+    // Stores the eventual outcome of in-flight work the way the controller would have answered it; an
+    // unexpected failure releases the key, since nothing took effect that a retry could duplicate.
+    private void settle(String key, Entry entry, int successStatus, Object result, Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        try {
+            if (cause == null) {
+                store.complete(key, entry, new StoredResponse(successStatus, MediaType.APPLICATION_JSON_VALUE, Map.of(),
+                        objectMapper.writeValueAsBytes(result)));
+            } else if (cause instanceof AppException e && isStorable(e.getErrorCode().getHttpStatus().value())) {
+                store.complete(key, entry, new StoredResponse(e.getErrorCode().getHttpStatus().value(),
+                        MediaType.APPLICATION_JSON_VALUE, Map.of(),
+                        objectMapper.writeValueAsBytes(new ErrorDTO(e.getErrorCode(), e.getMessageParams()))));
+            } else {
+                store.release(key, entry, null);
+            }
+        } catch (JsonProcessingException e) {
+            store.release(key, entry, null);
+        }
+    }
+
+    private static boolean isStorable(int status) {
+        return status < 500 && !TRANSIENT_STATUSES.contains(status);
+    }
+
+    private static Map<String, List<String>> headers(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!UNSTORED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.putIfAbsent(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    private void replay(Entry existing, byte[] fingerprint, HttpServletResponse response) throws IOException {
+        if (!Arrays.equals(existing.fingerprint(), fingerprint)) {
+            writeError(response, ErrorCode.IDEMPOTENCY_KEY_REUSED, null);
+            return;
+        }
+        StoredResponse stored;
+        try {
+            stored = existing.response().get(store.getWaitMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS, null);
+            return;
+        } catch (TimeoutException | ExecutionException | CancellationException e) {
+            writeError(response, ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS, null);
+            return;
+        }
+        response.setStatus(stored.status());
+        stored.headers().forEach((name, values) -> {
+            response.setHeader(name, values.getFirst());
+            values.stream().skip(1).forEach(value -> response.addHeader(name, value));
+        });
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletResponse response, ErrorCode errorCode, Map<String, String> params)
+            throws IOException {
+        response.setStatus(errorCode.getHttpStatus().value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorDTO(errorCode, params));
+    }
+
+    // Null for anonymous callers.
+    private static String scope() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return "user:" + user.getId();
+        }
+        return null;
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Serves the body that was already read for the fingerprint.
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory, so it is reported as available and fully read at once.
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
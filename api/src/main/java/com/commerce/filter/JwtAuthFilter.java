@@ -1,14 +1,18 @@
 package com.commerce.filter;
 
+import com.commerce.cache.RevokedTokenStore;
+import com.commerce.cache.TokenEpochCache;
+import com.commerce.cache.UserCache;
 import com.commerce.model.entity.User;
-import com.commerce.repository.UserRepository;
 import com.commerce.service.JwtService;
-import io.jsonwebtoken.ExpiredJwtException;
+import com.commerce.service.JwtService.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,7 +28,14 @@ import java.util.Optional;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final TokenEpochCache tokenEpochCache;
+    private final RevokedTokenStore revokedTokenStore;
+
+    // When set, tokens that carry a role become the principal directly (a User holding only id, username,
+    // role and epoch) with no user lookup; older tokens fall back to the user cache.
+    @Value("${application.security.jwt.stateless-principal:true}")
+    private boolean statelessPrincipal;
 
 
     @Override
@@ -46,23 +57,31 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         String jwt = authHeader.substring(7);
-        int userId;
+        VerifiedToken token;
 
         try {
-            if (!jwtService.isTokenValid(jwt)) {
-                filterChain.doFilter(request, response);
-                return;
-            }
-            userId = jwtService.extractUserId(jwt);
-        } catch (ExpiredJwtException e) {
+            // One parse and signature check per request; expired, tampered and malformed tokens all end up
+            // unauthenticated here.
+            token = jwtService.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (SecurityContextHolder.getContext().getAuthentication() == null) {
-            Optional<User> optionalUser = userRepository.findById(userId);
-            if (optionalUser.isPresent()) {
-                UserDetails userDetails = optionalUser.get();
+        if (SecurityContextHolder.getContext().getAuthentication() == null
+                && token.isAccessToken()
+                && tokenEpochCache.isCurrent(token.userId(), token.epoch())
+                && !revokedTokenStore.isRevoked(token.tokenId())) {
+            Optional<User> principal = statelessPrincipal && token.role() != null
+                    ? Optional.of(User.builder()
+                            .id(token.userId())
+                            .username(token.subject())
+                            .role(token.role())
+                            .tokenEpoch(token.epoch())
+                            .build())
+                    : userCache.get(token.userId());
+            if (principal.isPresent()) {
+                UserDetails userDetails = principal.get();
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
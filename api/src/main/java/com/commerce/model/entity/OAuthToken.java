@@ -10,7 +10,7 @@ import java.time.Instant;
 
 @Builder
 @Entity
-@Table(name = "oauth_token")
+@Table(name = "oauth_token", indexes = @Index(name = "idx__oauth_token__expires_at", columnList = "expires_at"))
 @Getter
 @Setter
 @NoArgsConstructor
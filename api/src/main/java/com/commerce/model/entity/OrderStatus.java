@@ -0,0 +1,9 @@
+package com.commerce.model.entity;
+
+public enum OrderStatus {
+    PENDING,
+    CONFIRMED,
+    DELIVERING,
+    DELIVERED,
+    CANCELLED
+}
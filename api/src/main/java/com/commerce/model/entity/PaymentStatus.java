@@ -0,0 +1,7 @@
+package com.commerce.model.entity;
+
+public enum PaymentStatus {
+    PENDING,
+    PAID,
+    FAILED
+}
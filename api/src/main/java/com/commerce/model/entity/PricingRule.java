@@ -0,0 +1,44 @@
+package com.commerce.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Admin-defined discount on one SKU. Rules are not read per request; PricingRuleService compiles them all
+// into a PricingRuleTable whenever they change.
+@Entity
+@Table(name = "pricing_rule", indexes = @Index(name = "idx__pricing_rule__sku_id", columnList = "sku_id"))
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PricingRule extends BaseAuditEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sku_id", nullable = false)
+    private Integer skuId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PricingRuleType type;
+
+    @Column(name = "min_quantity")
+    private Integer minQuantity;
+
+    @Column(name = "discount_basis_points")
+    private Integer discountBasisPoints;
+
+    @Column(name = "bundle_price", precision = 10, scale = 2)
+    private BigDecimal bundlePrice;
+
+    @Column(name = "starts_at")
+    private Instant startsAt;
+
+    @Column(name = "ends_at")
+    private Instant endsAt;
+}
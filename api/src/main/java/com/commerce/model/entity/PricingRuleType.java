@@ -0,0 +1,10 @@
+package com.commerce.model.entity;
+
+public enum PricingRuleType {
+    // discountBasisPoints off a line of at least minQuantity units
+    TIER,
+    // every minQuantity units of a line cost bundlePrice
+    BUNDLE,
+    // discountBasisPoints off any line between startsAt and endsAt
+    TIME_WINDOW
+}
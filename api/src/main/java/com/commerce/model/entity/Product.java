@@ -1,8 +1,11 @@
 package com.commerce.model.entity;
+import com.commerce.util.MoneyUtil;
 import jakarta.persistence.*;
 import lombok.*;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Entity
 @Table(name = "product")
@@ -23,4 +26,33 @@ public class Product extends BaseAuditEntity {
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<ProductVariant> variants = new ArrayList<>();
 
+    // Aggregates over the SKUs of all variants, kept in sync on write so that listing can sort and
+    // filter on indexed product columns instead of joining product_variant and sku.
+    @Builder.Default
+    @Column(name = "min_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal minPrice = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "max_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal maxPrice = BigDecimal.ZERO;
+
+    // The stock aggregates are written on insert only; afterwards SkuStockRepository applies the stock
+    // deltas to them, so an entity update can't add a stock change a second time.
+    @Column(name = "total_stock", nullable = false, updatable = false)
+    private int totalStock;
+
+    @Column(name = "in_stock", nullable = false, updatable = false)
+    private boolean inStock;
+
+    public void refreshAggregates() {
+        var skus = variants.stream()
+                .map(ProductVariant::getSku)
+                .filter(Objects::nonNull)
+                .toList();
+        minPrice = MoneyUtil.toDecimal(skus.stream().mapToLong(sku -> MoneyUtil.toCents(sku.getPrice())).min().orElse(0));
+        maxPrice = MoneyUtil.toDecimal(skus.stream().mapToLong(sku -> MoneyUtil.toCents(sku.getPrice())).max().orElse(0));
+        totalStock = skus.stream().mapToInt(Sku::getStockQuantity).sum();
+        inStock = totalStock > 0;
+    }
+
 }
\ No newline at end of file
@@ -3,23 +3,25 @@ package com.commerce.model.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "refresh_token")
+@Table(name = "refresh_token", indexes = @Index(name = "idx__refresh_token__expiration_time", columnList = "expiration_time"))
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @EntityListeners(AuditingEntityListener.class)
-public class RefreshToken {
+public class RefreshToken implements Persistable<String> {
 
+    // SHA-256 of the token (TokenHashUtil); the token itself is never stored.
     @Id
-    @Column(name = "token")
-    private String token;
+    @Column(name = "token_hash", length = 43, columnDefinition = "CHAR(43)")
+    private String tokenHash;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
@@ -30,6 +32,29 @@ public class RefreshToken {
 
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
     private Instant createdAt = Instant.now();
 
+    // The id is assigned (the token hash), so tell Spring Data when the row is new: save() then persists
+    // directly instead of merging, which would select the row first.
+    @Transient
+    @Builder.Default
+    private boolean persisted = false;
+
+    @Override
+    public String getId() {
+        return tokenHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.commerce.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Id (jti) of an access token revoked before its expiry; written and read by RevokedTokenRepository.
+@Table(name = "revoked_token", indexes = @Index(name = "idx__revoked_token__expires_at", columnList = "expires_at"))
+@Entity
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevokedToken {
+    @Id
+    @Column(name = "token_id", length = 36, columnDefinition = "CHAR(36)")
+    private String tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
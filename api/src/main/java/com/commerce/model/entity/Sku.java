@@ -19,6 +19,8 @@ public class Sku {
     @JoinColumn(name = "variant_id", referencedColumnName = "id", nullable = false)
     private ProductVariant productVariant;
 
+    // Written on insert only; later changes go through StockService as set-based deltas.
+    @Column(updatable = false)
     private Integer stockQuantity;
 
     private Double price;
@@ -0,0 +1,33 @@
+package com.commerce.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Append-only: rows are only ever inserted, with the stock change they record (see StockMovementRecorder).
+@Table(name = "stock_movement", indexes = @Index(name = "idx__stock_movement__sku_id_id", columnList = "sku_id, id"))
+@Entity
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockMovement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sku_id", nullable = false)
+    private Integer skuId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StockMovementReason reason;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
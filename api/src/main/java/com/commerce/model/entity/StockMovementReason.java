@@ -0,0 +1,11 @@
+package com.commerce.model.entity;
+
+public enum StockMovementReason {
+    INITIAL,
+    RESERVE,
+    RELEASE,
+    ADJUST,
+    REMOVED,
+    // net change of a hot SKU written back by HotStockService
+    HOT_FLUSH
+}
@@ -0,0 +1,40 @@
+package com.commerce.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+// Stock of a SKU folded from every movement up to lastMovementId; asOf is the time of that movement.
+@Table(name = "stock_snapshot", indexes = @Index(name = "idx__stock_snapshot__sku_id_as_of", columnList = "sku_id, as_of"))
+@Entity
+@IdClass(StockSnapshot.Key.class)
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockSnapshot {
+    @Id
+    @Column(name = "sku_id")
+    private Integer skuId;
+
+    @Id
+    @Column(name = "last_movement_id")
+    private Long lastMovementId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(name = "as_of", nullable = false)
+    private Instant asOf;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Integer skuId;
+        private Long lastMovementId;
+    }
+}
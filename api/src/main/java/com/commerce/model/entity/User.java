@@ -25,6 +25,7 @@ public class User extends BaseAuditEntity implements UserDetails {
     @Column(name = "full_name")
     private String fullName;
 
+    @Column(unique = true, nullable = false)
     private String username;
     private String email;
     private String password;
@@ -38,6 +39,10 @@ public class User extends BaseAuditEntity implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Role role = Role.ROLE_USER;
 
+    // Bumped to revoke every access token issued before; tokens carry the epoch they were issued at.
+    @Column(name = "token_epoch", nullable = false)
+    private int tokenEpoch;
+
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
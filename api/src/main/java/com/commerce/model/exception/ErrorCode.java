@@ -23,6 +23,11 @@ public enum ErrorCode {
             "Product {id} not found",
             HttpStatus.NOT_FOUND
     ),
+    SKU_NOT_FOUND(
+            "SKU_NOT_FOUND",
+            "Sku {id} not found",
+            HttpStatus.NOT_FOUND
+    ),
     USER_NOT_FOUND(
             "USER_NOT_FOUND",
             "User {id} not found",
@@ -62,6 +67,116 @@ public enum ErrorCode {
             "INVALID_CREDENTIALS",
             "Invalid credentials",
             HttpStatus.UNAUTHORIZED
+    ),
+    INVALID_CURSOR(
+            "INVALID_CURSOR",
+            "Invalid page cursor",
+            HttpStatus.BAD_REQUEST
+    ),
+    INVALID_SORT(
+            "INVALID_SORT",
+            "Unsupported sort {sort}",
+            HttpStatus.BAD_REQUEST
+    ),
+    INVALID_VIEW(
+            "INVALID_VIEW",
+            "Unsupported view {view}",
+            HttpStatus.BAD_REQUEST
+    ),
+    INVALID_PRICE_RANGE(
+            "INVALID_PRICE_RANGE",
+            "Invalid price range {minPrice}-{maxPrice}",
+            HttpStatus.BAD_REQUEST
+    ),
+    INVALID_STOCK_QUANTITY(
+            "INVALID_STOCK_QUANTITY",
+            "Invalid quantity {quantity} for sku {skuId}",
+            HttpStatus.BAD_REQUEST
+    ),
+    INSUFFICIENT_STOCK(
+            "INSUFFICIENT_STOCK",
+            "Insufficient stock for sku {skuId}",
+            HttpStatus.CONFLICT
+    ),
+    ORDER_NOT_FOUND(
+            "ORDER_NOT_FOUND",
+            "Order {id} not found",
+            HttpStatus.NOT_FOUND
+    ),
+    INVALID_ORDER(
+            "INVALID_ORDER",
+            "Invalid order: {reason}",
+            HttpStatus.BAD_REQUEST
+    ),
+    PRICE_CHANGED(
+            "PRICE_CHANGED",
+            "Price of sku {skuId} has changed",
+            HttpStatus.CONFLICT
+    ),
+    PRICING_RULE_NOT_FOUND(
+            "PRICING_RULE_NOT_FOUND",
+            "Pricing rule {id} not found",
+            HttpStatus.NOT_FOUND
+    ),
+    INVALID_PRICING_RULE(
+            "INVALID_PRICING_RULE",
+            "Invalid pricing rule: {reason}",
+            HttpStatus.BAD_REQUEST
+    ),
+    INVALID_CART(
+            "INVALID_CART",
+            "Invalid cart: {reason}",
+            HttpStatus.BAD_REQUEST
+    ),
+    CHECKOUT_IN_PROGRESS(
+            "CHECKOUT_IN_PROGRESS",
+            "A checkout of this cart is already in progress",
+            HttpStatus.CONFLICT
+    ),
+    INVALID_IDEMPOTENCY_KEY(
+            "INVALID_IDEMPOTENCY_KEY",
+            "Idempotency-Key must be 1 to 255 characters",
+            HttpStatus.BAD_REQUEST
+    ),
+    IDEMPOTENCY_KEY_REUSED(
+            "IDEMPOTENCY_KEY_REUSED",
+            "Idempotency-Key was already used with a different request body",
+            HttpStatus.UNPROCESSABLE_ENTITY
+    ),
+    IDEMPOTENT_REQUEST_IN_PROGRESS(
+            "IDEMPOTENT_REQUEST_IN_PROGRESS",
+            "A request with this Idempotency-Key is still in progress or failed; retry later",
+            HttpStatus.CONFLICT
+    ),
+    IDEMPOTENT_REQUEST_TOO_LARGE(
+            "IDEMPOTENT_REQUEST_TOO_LARGE",
+            "Requests with an Idempotency-Key may carry at most {maxBytes} bytes",
+            HttpStatus.PAYLOAD_TOO_LARGE
+    ),
+    INVALID_ROLE(
+            "INVALID_ROLE",
+            "Role is required",
+            HttpStatus.BAD_REQUEST
+    ),
+    AUTH_BUSY(
+            "AUTH_BUSY",
+            "Too many sign-in requests, retry shortly",
+            HttpStatus.TOO_MANY_REQUESTS
+    ),
+    INVALID_USERNAME(
+            "INVALID_USERNAME",
+            "Username must be 1 to 255 characters",
+            HttpStatus.BAD_REQUEST
+    ),
+    INVALID_ID_TOKEN(
+            "INVALID_ID_TOKEN",
+            "Invalid id_token: {reason}",
+            HttpStatus.UNAUTHORIZED
+    ),
+    ORDER_PLACEMENT_TIMEOUT(
+            "ORDER_PLACEMENT_TIMEOUT",
+            "Order placement is taking too long and may still complete; retry with the same Idempotency-Key or check your orders",
+            HttpStatus.SERVICE_UNAVAILABLE
     );
 
     private final String code;
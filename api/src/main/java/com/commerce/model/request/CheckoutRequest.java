@@ -0,0 +1,19 @@
+package com.commerce.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+// Delivery details for turning the current cart into an order; the lines come from the cart itself.
+@Data
+@AllArgsConstructor
+@Builder
+public class CheckoutRequest {
+    private final String recipientName;
+    private final String phoneNumber;
+    private final String cityCode;
+    private final String districtCode;
+    private final String address;
+    private final String deliveryNotes;
+    private final String notes;
+}
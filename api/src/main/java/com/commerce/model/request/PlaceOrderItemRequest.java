@@ -0,0 +1,15 @@
+package com.commerce.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class PlaceOrderItemRequest {
+    private final Integer skuId;
+    private final int quantity;
+    // Price the customer saw; placement fails if the SKU price has changed since.
+    private final Double unitPrice;
+}
@@ -0,0 +1,21 @@
+package com.commerce.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class PlaceOrderRequest {
+    private final List<PlaceOrderItemRequest> items;
+    private final String recipientName;
+    private final String phoneNumber;
+    private final String cityCode;
+    private final String districtCode;
+    private final String address;
+    private final String deliveryNotes;
+    private final String notes;
+}
@@ -0,0 +1,23 @@
+package com.commerce.model.request;
+
+import com.commerce.model.entity.PricingRuleType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+// Which fields are required depends on the type: TIER needs minQuantity and discountBasisPoints, BUNDLE
+// needs minQuantity (the bundle size) and bundlePrice, TIME_WINDOW needs discountBasisPoints, startsAt and endsAt.
+@Data
+@AllArgsConstructor
+@Builder
+public class PricingRuleRequest {
+    private final Integer skuId;
+    private final PricingRuleType type;
+    private final Integer minQuantity;
+    private final Integer discountBasisPoints;
+    private final Double bundlePrice;
+    private final Instant startsAt;
+    private final Instant endsAt;
+}
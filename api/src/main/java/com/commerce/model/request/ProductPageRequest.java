@@ -0,0 +1,45 @@
+package com.commerce.model.request;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Locale;
+
+@Data
+@NoArgsConstructor
+public class ProductPageRequest {
+    private String q = "";
+    private int size = 20;
+    private String cursor;
+    private String sort;
+    private boolean withTotal = false;
+    private boolean withFacets = false;
+    private String view;
+    private Boolean inStock;
+    private Double minPrice;
+    private Double maxPrice;
+    private List<String> unitType;
+    private List<Integer> quantityPerUnit;
+
+    public boolean hasFilters() {
+        return hasVariantFilters();
+    }
+
+    // Filters that must hold for the same variant, as opposed to product-level aggregates. inStock is one of
+    // them: a variant is in stock when its SKU is, the same definition the inStock facet counts by.
+    public boolean hasVariantFilters() {
+        return inStock != null || minPrice != null || maxPrice != null
+                || (unitType != null && !unitType.isEmpty())
+                || (quantityPerUnit != null && !quantityPerUnit.isEmpty());
+    }
+
+    // Identifies the filtered result set, independent of cursor and page size.
+    public String filterKey() {
+        return (q == null ? "" : q.trim().toLowerCase(Locale.ROOT))
+                + "|inStock=" + inStock
+                + "|price=" + minPrice + "," + maxPrice
+                + "|unitType=" + (unitType == null ? null : unitType.stream().sorted().toList())
+                + "|quantityPerUnit=" + (quantityPerUnit == null ? null : quantityPerUnit.stream().sorted().toList());
+    }
+}
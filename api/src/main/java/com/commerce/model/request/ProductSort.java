@@ -0,0 +1,46 @@
+package com.commerce.model.request;
+
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import org.springframework.data.domain.Sort;
+
+import java.util.Map;
+
+public record ProductSort(ProductSortKey key, Sort.Direction direction) {
+
+    public static final ProductSort DEFAULT = new ProductSort(ProductSortKey.ID, Sort.Direction.ASC);
+
+    // Accepts "name", "-name", "name,desc" or "name,asc"; defaults to ascending id.
+    public static ProductSort parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return DEFAULT;
+        }
+        String value = sort.trim();
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (value.startsWith("-")) {
+            direction = Sort.Direction.DESC;
+            value = value.substring(1);
+        } else if (value.contains(",")) {
+            String[] parts = value.split(",", 2);
+            value = parts[0].trim();
+            direction = Sort.Direction.fromOptionalString(parts[1].trim()).orElse(Sort.Direction.ASC);
+        }
+        ProductSortKey key = ProductSortKey.fromParam(value).orElseThrow(() -> new AppException(
+                ErrorCode.INVALID_SORT,
+                Map.of("sort", sort)
+        ));
+        return new ProductSort(key, direction);
+    }
+
+    public boolean isAscending() {
+        return direction.isAscending();
+    }
+
+    // The id is always the last sort key so that the keyset is unique.
+    public Sort toSort() {
+        if (key == ProductSortKey.ID) {
+            return Sort.by(direction, ProductSortKey.ID.getAttribute());
+        }
+        return Sort.by(direction, key.getAttribute(), ProductSortKey.ID.getAttribute());
+    }
+}
@@ -0,0 +1,46 @@
+package com.commerce.model.request;
+
+import com.commerce.model.entity.Product;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Getter
+public enum ProductSortKey {
+    ID("id", "id", Integer::valueOf, Product::getId),
+    NAME("name", "name", Function.identity(), Product::getName),
+    PRICE("price", "minPrice", BigDecimal::new, Product::getMinPrice),
+    STOCK("stock", "totalStock", Integer::valueOf, Product::getTotalStock);
+
+    private final String param;
+    private final String attribute;
+    private final Function<String, ? extends Comparable<?>> cursorParser;
+    private final Function<Product, ?> cursorExtractor;
+
+    ProductSortKey(String param,
+                   String attribute,
+                   Function<String, ? extends Comparable<?>> cursorParser,
+                   Function<Product, ?> cursorExtractor) {
+        this.param = param;
+        this.attribute = attribute;
+        this.cursorParser = cursorParser;
+        this.cursorExtractor = cursorExtractor;
+    }
+
+    public Comparable<?> parseCursorValue(String raw) {
+        return cursorParser.apply(raw);
+    }
+
+    public String cursorValue(Product product) {
+        return String.valueOf(cursorExtractor.apply(product));
+    }
+
+    public static Optional<ProductSortKey> fromParam(String param) {
+        return Arrays.stream(values())
+                .filter(key -> key.param.equalsIgnoreCase(param))
+                .findFirst();
+    }
+}
@@ -0,0 +1,23 @@
+package com.commerce.model.request;
+
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+
+import java.util.Locale;
+import java.util.Map;
+
+public enum ProductView {
+    FULL,
+    COMPACT;
+
+    public static ProductView fromParam(String view) {
+        if (view == null || view.isBlank()) {
+            return FULL;
+        }
+        try {
+            return valueOf(view.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_VIEW, Map.of("view", view));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.commerce.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class StockItemRequest {
+    private final Integer skuId;
+    private final int quantity;
+}
@@ -0,0 +1,15 @@
+package com.commerce.model.request;
+
+import com.commerce.model.entity.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateRoleRequest {
+    private Role role;
+}
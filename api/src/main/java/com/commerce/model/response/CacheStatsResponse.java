@@ -0,0 +1,42 @@
+package com.commerce.model.response;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CacheStatsResponse {
+    private String name;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long loadCount;
+    private double averageLoadPenaltyMillis;
+    private long evictionCount;
+    private long evictionWeight;
+    private long estimatedSize;
+    private Long weightedSize;
+    private Long maximumWeight;
+
+    public static CacheStatsResponse from(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        var eviction = cache.policy().eviction().orElse(null);
+        return CacheStatsResponse.builder()
+                .name(name)
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .loadCount(stats.loadCount())
+                .averageLoadPenaltyMillis(stats.averageLoadPenalty() / 1_000_000.0)
+                .evictionCount(stats.evictionCount())
+                .evictionWeight(stats.evictionWeight())
+                .estimatedSize(cache.estimatedSize())
+                .weightedSize(eviction != null && eviction.weightedSize().isPresent()
+                        ? eviction.weightedSize().getAsLong()
+                        : null)
+                .maximumWeight(eviction != null ? eviction.getMaximum() : null)
+                .build();
+    }
+}
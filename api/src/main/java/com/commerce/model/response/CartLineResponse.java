@@ -0,0 +1,22 @@
+package com.commerce.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+// Names, prices and problem are only filled in by validation; problem is an ErrorCode name
+// (SKU_NOT_FOUND, INSUFFICIENT_STOCK) or null when the line can be ordered.
+@Data
+@Builder
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CartLineResponse {
+    private int skuId;
+    private int quantity;
+    private String productName;
+    private String variantName;
+    private Double unitPrice;
+    private Double subtotal;
+    private String problem;
+}
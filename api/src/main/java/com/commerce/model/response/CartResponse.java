@@ -0,0 +1,19 @@
+package com.commerce.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CartResponse {
+    private List<CartLineResponse> lines;
+    // Set by validation only.
+    private Double totalAmount;
+    private Boolean valid;
+}
@@ -0,0 +1,13 @@
+package com.commerce.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class FacetCount {
+    private String value;
+    private long count;
+}
@@ -0,0 +1,35 @@
+package com.commerce.model.response;
+
+import com.commerce.model.entity.OrderItem;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class OrderItemResponse {
+    private long id;
+    private int skuId;
+    private int productVariantId;
+    private int productId;
+    private String productName;
+    private String variantName;
+    private int quantity;
+    private double unitPrice;
+    private double subtotal;
+
+    public static OrderItemResponse from(OrderItem item) {
+        return new OrderItemResponse(
+                item.getId(),
+                item.getSkuId(),
+                item.getProductVariantId(),
+                item.getProductId(),
+                item.getProductName(),
+                item.getVariantName(),
+                item.getQuantity(),
+                item.getUnitPrice().doubleValue(),
+                item.getSubtotal().doubleValue()
+        );
+    }
+}
@@ -0,0 +1,50 @@
+package com.commerce.model.response;
+
+import com.commerce.model.entity.Order;
+import com.commerce.model.entity.OrderStatus;
+import com.commerce.model.entity.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class OrderResponse {
+    private long id;
+    private int userId;
+    private List<OrderItemResponse> orderItems;
+    private double totalAmount;
+    private OrderStatus orderStatus;
+    private PaymentStatus paymentStatus;
+    private String recipientName;
+    private String phoneNumber;
+    private String cityCode;
+    private String districtCode;
+    private String address;
+    private String deliveryNotes;
+    private String notes;
+    private Instant createdAt;
+
+    public static OrderResponse from(Order order) {
+        return OrderResponse.builder()
+                .id(order.getId())
+                .userId(order.getUserId())
+                .orderItems(order.getItems().stream().map(OrderItemResponse::from).toList())
+                .totalAmount(order.getTotalAmount().doubleValue())
+                .orderStatus(order.getOrderStatus())
+                .paymentStatus(order.getPaymentStatus())
+                .recipientName(order.getRecipientName())
+                .phoneNumber(order.getPhoneNumber())
+                .cityCode(order.getCityCode())
+                .districtCode(order.getDistrictCode())
+                .address(order.getAddress())
+                .deliveryNotes(order.getDeliveryNotes())
+                .notes(order.getNotes())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.commerce.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class PageInfo {
+    private String next;
+    private Long totalCount;
+    private int size;
+}
@@ -0,0 +1,36 @@
+package com.commerce.model.response;
+
+import com.commerce.model.entity.PricingRule;
+import com.commerce.model.entity.PricingRuleType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class PricingRuleResponse {
+    private long id;
+    private int skuId;
+    private PricingRuleType type;
+    private Integer minQuantity;
+    private Integer discountBasisPoints;
+    private Double bundlePrice;
+    private Instant startsAt;
+    private Instant endsAt;
+
+    public static PricingRuleResponse from(PricingRule rule) {
+        return new PricingRuleResponse(
+                rule.getId(),
+                rule.getSkuId(),
+                rule.getType(),
+                rule.getMinQuantity(),
+                rule.getDiscountBasisPoints(),
+                rule.getBundlePrice() != null ? rule.getBundlePrice().doubleValue() : null,
+                rule.getStartsAt(),
+                rule.getEndsAt()
+        );
+    }
+}
@@ -3,8 +3,10 @@ package com.commerce.model.response;
 
 import com.commerce.model.entity.Product;
 import com.commerce.model.entity.ProductVariant;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.util.List;
 import java.util.Objects;
@@ -18,7 +20,10 @@ public class ProductResponse {
     private String description;
     private List<ProductVariantResponse> variants;
     private AuditResponse audit;
-
+    // ProductCache version read before this response was loaded; not part of the payload.
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private long cacheVersion;
 
     public static ProductResponse from(Product product) {
         return new ProductResponse(
@@ -28,7 +33,8 @@ public class ProductResponse {
                 product.getVariants().stream()
                         .map(ProductVariantResponse::from)
                         .collect(Collectors.toList()),
-                AuditResponse.from(product)
+                AuditResponse.from(product),
+                0
         );
     }
 
@@ -40,7 +46,22 @@ public class ProductResponse {
                 variants != null ? variants.stream()
                         .map(ProductVariantResponse::from)
                         .collect(Collectors.toList()) : null,
-                AuditResponse.from(product)
+                AuditResponse.from(product),
+                0
+        );
+    }
+
+    // Compact shape: variants are nested without repeating their parent product.
+    public ProductResponse toCompact() {
+        return new ProductResponse(
+                id,
+                name,
+                description,
+                variants != null ? variants.stream()
+                        .map(ProductVariantResponse::withoutProduct)
+                        .collect(Collectors.toList()) : null,
+                audit,
+                cacheVersion
         );
     }
 
@@ -50,7 +71,8 @@ public class ProductResponse {
                 product.getName(),
                 product.getDescription(),
                 null,
-                AuditResponse.from(product)
+                AuditResponse.from(product),
+                0
         );
     }
 
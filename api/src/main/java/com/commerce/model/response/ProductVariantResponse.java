@@ -1,5 +1,6 @@
 package com.commerce.model.response;
 import com.commerce.model.entity.ProductVariant;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -14,6 +15,7 @@ public class ProductVariantResponse {
     private int quantityPerUnit;
     private String unitType;
     private SkuResponse sku;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private ProductResponse product;
 
 
@@ -28,6 +30,10 @@ public class ProductVariantResponse {
         );
     }
 
+    public ProductVariantResponse withoutProduct() {
+        return new ProductVariantResponse(id, variantName, quantityPerUnit, unitType, sku, null);
+    }
+
     public static ProductVariantResponse fromBrief(ProductVariant variant) {
         return new ProductVariantResponse(
                 Objects.requireNonNull(variant.getId(), "Variant ID must not be null"),
@@ -0,0 +1,20 @@
+package com.commerce.model.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class SessionSweepStatsResponse {
+    private long runs;
+    private long refreshTokensPurged;
+    private long oauthTokensPurged;
+    private long revokedTokensPurged;
+    private long chunks;
+    private long totalMillis;
+    private Instant lastRunAt;
+    private long lastRunMillis;
+    private long lastRunPurged;
+}
@@ -0,0 +1,16 @@
+package com.commerce.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class StockLevelResponse {
+    private int skuId;
+    private Instant at;
+    private int quantity;
+}
@@ -0,0 +1,30 @@
+package com.commerce.model.response;
+
+import com.commerce.model.entity.StockMovement;
+import com.commerce.model.entity.StockMovementReason;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class StockMovementResponse {
+    private long id;
+    private int skuId;
+    private int delta;
+    private StockMovementReason reason;
+    private Instant createdAt;
+
+    public static StockMovementResponse from(StockMovement movement) {
+        return new StockMovementResponse(
+                movement.getId(),
+                movement.getSkuId(),
+                movement.getDelta(),
+                movement.getReason(),
+                movement.getCreatedAt()
+        );
+    }
+}
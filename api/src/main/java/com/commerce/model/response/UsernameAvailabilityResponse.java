@@ -0,0 +1,11 @@
+package com.commerce.model.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class UsernameAvailabilityResponse {
+    private String username;
+    private boolean available;
+}
@@ -0,0 +1,86 @@
+package com.commerce.pricing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Order arithmetic on primitive long cents: no boxing, no BigDecimal and no allocation per call, and
+// exact by construction. Overflow fails with ArithmeticException instead of wrapping. Discounts round
+// half up to the cent, per line. Per-SKU rules are read from a compiled PricingRuleTable that is replaced
+// as a whole, so a line is always priced against one consistent set of rules.
+@Component
+public class PricingEngine {
+    private static final long BASIS_POINTS = 10_000;
+
+    private final QuantityTiers quantityTiers;
+    private final AtomicReference<PricingRuleTable> rules = new AtomicReference<>(PricingRuleTable.EMPTY);
+
+    public PricingEngine(@Value("${application.pricing.quantity-tiers:}") String quantityTiers) {
+        this.quantityTiers = QuantityTiers.parse(quantityTiers);
+    }
+
+    public void install(PricingRuleTable table) {
+        rules.set(table);
+    }
+
+    public PricingRuleTable rules() {
+        return rules.get();
+    }
+
+    public long lineSubtotal(long unitPriceCents, int quantity) {
+        return lineSubtotal(unitPriceCents, quantity, quantityTiers);
+    }
+
+    // Price of a line under the SKU's rules at nowMillis. SKU tier rules replace the configured default
+    // tiers; the percentage off is the better of the tier and any open time window, and a bundle price
+    // is taken instead when it comes out lower. Discounts never stack.
+    public long lineSubtotal(int skuId, long unitPriceCents, int quantity, long nowMillis) {
+        PricingRuleTable table = rules.get();
+        int index = table.indexOf(skuId);
+        if (index < 0) {
+            return lineSubtotal(unitPriceCents, quantity, quantityTiers);
+        }
+        QuantityTiers tiers = table.tiers(index).isEmpty() ? quantityTiers : table.tiers(index);
+        int basisPoints = Math.max(tiers.discountBasisPoints(quantity), table.windowBasisPoints(index, nowMillis));
+        long gross = gross(unitPriceCents, quantity);
+        long best = gross - discount(gross, basisPoints);
+        int bundleQuantity = table.bundleQuantity(index);
+        if (bundleQuantity > 0 && quantity >= bundleQuantity) {
+            long bundled = Math.addExact(
+                    Math.multiplyExact((long) (quantity / bundleQuantity), table.bundlePriceCents(index)),
+                    Math.multiplyExact((long) (quantity % bundleQuantity), unitPriceCents));
+            best = Math.min(best, bundled);
+        }
+        return best;
+    }
+
+    public static long lineSubtotal(long unitPriceCents, int quantity, QuantityTiers tiers) {
+        long gross = gross(unitPriceCents, quantity);
+        return gross - discount(gross, tiers.discountBasisPoints(quantity));
+    }
+
+    private static long gross(long unitPriceCents, int quantity) {
+        if (unitPriceCents < 0 || quantity < 0) {
+            throw new IllegalArgumentException("Price and quantity must not be negative");
+        }
+        return Math.multiplyExact(unitPriceCents, (long) quantity);
+    }
+
+    // Half-up: (gross * bp + 5000) / 10000 on non-negative values.
+    public static long discount(long grossCents, int basisPoints) {
+        if (basisPoints == 0) {
+            return 0;
+        }
+        return (Math.multiplyExact(grossCents, (long) basisPoints) + BASIS_POINTS / 2) / BASIS_POINTS;
+    }
+
+    // Sum of the first count lines; arrays are parallel and may be reused across calls.
+    public long total(long[] unitPriceCents, int[] quantities, int count) {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total = Math.addExact(total, lineSubtotal(unitPriceCents[i], quantities[i], quantityTiers));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,119 @@
+package com.commerce.pricing;
+
+import com.commerce.model.entity.PricingRule;
+import com.commerce.util.MoneyUtil;
+
+import java.util.*;
+
+// Immutable per-SKU view of all pricing rules, laid out as parallel arrays indexed by the position of the
+// SKU id in a sorted int[]. Looking up a line is a binary search plus a few array reads; nothing here
+// touches the database or the rule entities after compile().
+public final class PricingRuleTable {
+    public static final PricingRuleTable EMPTY = compile(List.of(), 0);
+    private static final long[] NO_TIMES = new long[0];
+    private static final int[] NO_BASIS_POINTS = new int[0];
+
+    private final int[] skuIds;
+    private final QuantityTiers[] tiers;
+    private final int[] bundleQuantities;
+    private final long[] bundlePriceCents;
+    private final long[][] windowStarts;
+    private final long[][] windowEnds;
+    private final int[][] windowBasisPoints;
+
+    private PricingRuleTable(int size) {
+        skuIds = new int[size];
+        tiers = new QuantityTiers[size];
+        bundleQuantities = new int[size];
+        bundlePriceCents = new long[size];
+        windowStarts = new long[size][];
+        windowEnds = new long[size][];
+        windowBasisPoints = new int[size][];
+    }
+
+    // Time windows that ended before nowMillis are dropped; ones that haven't started yet are kept.
+    public static PricingRuleTable compile(Collection<PricingRule> rules, long nowMillis) {
+        SortedMap<Integer, List<PricingRule>> bySku = new TreeMap<>();
+        for (PricingRule rule : rules) {
+            bySku.computeIfAbsent(rule.getSkuId(), id -> new ArrayList<>()).add(rule);
+        }
+        PricingRuleTable table = new PricingRuleTable(bySku.size());
+        int i = 0;
+        for (Map.Entry<Integer, List<PricingRule>> entry : bySku.entrySet()) {
+            table.skuIds[i] = entry.getKey();
+            table.compileSku(i, entry.getValue(), nowMillis);
+            i++;
+        }
+        return table;
+    }
+
+    private void compileSku(int i, List<PricingRule> rules, long nowMillis) {
+        // Same threshold twice keeps the larger discount.
+        SortedMap<Integer, Integer> tierDiscounts = new TreeMap<>();
+        List<PricingRule> windows = new ArrayList<>();
+        for (PricingRule rule : rules) {
+            switch (rule.getType()) {
+                case TIER -> tierDiscounts.merge(rule.getMinQuantity(), rule.getDiscountBasisPoints(), Math::max);
+                case BUNDLE -> {
+                    long cents = MoneyUtil.toCents(rule.getBundlePrice());
+                    // Several bundles on one SKU: keep the lowest price per unit.
+                    if (bundleQuantities[i] == 0
+                            || cents * bundleQuantities[i] < bundlePriceCents[i] * rule.getMinQuantity()) {
+                        bundleQuantities[i] = rule.getMinQuantity();
+                        bundlePriceCents[i] = cents;
+                    }
+                }
+                case TIME_WINDOW -> {
+                    if (rule.getEndsAt().toEpochMilli() > nowMillis) {
+                        windows.add(rule);
+                    }
+                }
+            }
+        }
+        tiers[i] = QuantityTiers.of(
+                tierDiscounts.keySet().stream().mapToInt(Integer::intValue).toArray(),
+                tierDiscounts.values().stream().mapToInt(Integer::intValue).toArray());
+        windowStarts[i] = windows.isEmpty() ? NO_TIMES : new long[windows.size()];
+        windowEnds[i] = windows.isEmpty() ? NO_TIMES : new long[windows.size()];
+        windowBasisPoints[i] = windows.isEmpty() ? NO_BASIS_POINTS : new int[windows.size()];
+        for (int w = 0; w < windows.size(); w++) {
+            windowStarts[i][w] = windows.get(w).getStartsAt().toEpochMilli();
+            windowEnds[i][w] = windows.get(w).getEndsAt().toEpochMilli();
+            windowBasisPoints[i][w] = windows.get(w).getDiscountBasisPoints();
+        }
+    }
+
+    // Position of the SKU in this table, or a negative value if it has no rules.
+    public int indexOf(int skuId) {
+        return Arrays.binarySearch(skuIds, skuId);
+    }
+
+    public QuantityTiers tiers(int index) {
+        return tiers[index];
+    }
+
+    // Best discount among the windows open at nowMillis (start inclusive, end exclusive); windows don't stack.
+    public int windowBasisPoints(int index, long nowMillis) {
+        long[] starts = windowStarts[index];
+        long[] ends = windowEnds[index];
+        int best = 0;
+        for (int w = 0; w < starts.length; w++) {
+            if (starts[w] <= nowMillis && nowMillis < ends[w]) {
+                best = Math.max(best, windowBasisPoints[index][w]);
+            }
+        }
+        return best;
+    }
+
+    public int bundleQuantity(int index) {
+        return bundleQuantities[index];
+    }
+
+    public long bundlePriceCents(int index) {
+        return bundlePriceCents[index];
+    }
+
+    public int size() {
+        return skuIds.length;
+    }
+}
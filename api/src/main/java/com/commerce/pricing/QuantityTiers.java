@@ -0,0 +1,72 @@
+package com.commerce.pricing;
+
+import java.util.Arrays;
+
+// Quantity breaks as two parallel primitive arrays sorted by minimum quantity; a line buying at least
+// minQuantities[i] units gets discountBasisPoints[i] off (100 bp = 1%). Immutable once built.
+public final class QuantityTiers {
+    public static final QuantityTiers NONE = new QuantityTiers(new int[0], new int[0]);
+    private static final int MAX_BASIS_POINTS = 10_000;
+
+    private final int[] minQuantities;
+    private final int[] discountBasisPoints;
+
+    private QuantityTiers(int[] minQuantities, int[] discountBasisPoints) {
+        this.minQuantities = minQuantities;
+        this.discountBasisPoints = discountBasisPoints;
+    }
+
+    public static QuantityTiers of(int[] minQuantities, int[] discountBasisPoints) {
+        if (minQuantities.length != discountBasisPoints.length) {
+            throw new IllegalArgumentException("Tier arrays differ in length");
+        }
+        for (int i = 0; i < minQuantities.length; i++) {
+            if (minQuantities[i] <= 0 || (i > 0 && minQuantities[i] <= minQuantities[i - 1])) {
+                throw new IllegalArgumentException("Tier quantities must be positive and strictly increasing");
+            }
+            if (discountBasisPoints[i] < 0 || discountBasisPoints[i] > MAX_BASIS_POINTS) {
+                throw new IllegalArgumentException("Tier discount must be between 0 and 10000 basis points");
+            }
+        }
+        return minQuantities.length == 0 ? NONE
+                : new QuantityTiers(minQuantities.clone(), discountBasisPoints.clone());
+    }
+
+    // "10:500,50:1000" = 5% off from 10 units, 10% off from 50 units; blank means no tiers.
+    public static QuantityTiers parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return NONE;
+        }
+        String[] tiers = spec.split(",");
+        int[] minQuantities = new int[tiers.length];
+        int[] discountBasisPoints = new int[tiers.length];
+        for (int i = 0; i < tiers.length; i++) {
+            String[] parts = tiers[i].trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed quantity tier: " + tiers[i]);
+            }
+            minQuantities[i] = Integer.parseInt(parts[0].trim());
+            discountBasisPoints[i] = Integer.parseInt(parts[1].trim());
+        }
+        return of(minQuantities, discountBasisPoints);
+    }
+
+    // Tier lists are a handful of entries, so a backwards scan beats a binary search.
+    public int discountBasisPoints(int quantity) {
+        for (int i = minQuantities.length - 1; i >= 0; i--) {
+            if (quantity >= minQuantities[i]) {
+                return discountBasisPoints[i];
+            }
+        }
+        return 0;
+    }
+
+    public boolean isEmpty() {
+        return minQuantities.length == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantityTiers" + Arrays.toString(minQuantities) + Arrays.toString(discountBasisPoints);
+    }
+}
@@ -0,0 +1,77 @@
+package com.commerce.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+// Carts pushed out of the in-memory CartStore. Lines are stored as "skuId:quantity,..." in one row per
+// user; a row is deleted as soon as the cart is loaded back.
+@Repository
+@RequiredArgsConstructor
+public class CartSpillRepository {
+    private static final String UPSERT_SQL = """
+            INSERT INTO cart_spill (user_id, line_items, updated_at) VALUES (:userId, :lineItems, :updatedAt)
+            ON DUPLICATE KEY UPDATE line_items = VALUES(line_items), updated_at = VALUES(updated_at)
+            """;
+    private static final String FIND_SQL = "SELECT line_items FROM cart_spill WHERE user_id = :userId AND updated_at > :since";
+    private static final String DELETE_SQL = "DELETE FROM cart_spill WHERE user_id = :userId";
+    private static final String FIND_USER_IDS_SQL = "SELECT user_id FROM cart_spill WHERE updated_at > :since";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void save(int userId, Map<Integer, Integer> lines) {
+        jdbcTemplate.update(UPSERT_SQL, parameters(userId, lines));
+    }
+
+    public void saveAll(Map<Integer, Map<Integer, Integer>> carts) {
+        if (carts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, carts.entrySet().stream()
+                .map(cart -> parameters(cart.getKey(), cart.getValue()))
+                .toArray(MapSqlParameterSource[]::new));
+    }
+
+    // Returns the cart saved after since (in line order) and removes the row; empty if there is none.
+    public Map<Integer, Integer> take(int userId, Instant since) {
+        List<String> rows = jdbcTemplate.queryForList(FIND_SQL,
+                Map.of("userId", userId, "since", Timestamp.from(since)), String.class);
+        jdbcTemplate.update(DELETE_SQL, Map.of("userId", userId));
+        return rows.isEmpty() ? Map.of() : decode(rows.getFirst());
+    }
+
+    public Set<Integer> findUserIds(Instant since) {
+        return new HashSet<>(jdbcTemplate.queryForList(FIND_USER_IDS_SQL,
+                Map.of("since", Timestamp.from(since)), Integer.class));
+    }
+
+    private static MapSqlParameterSource parameters(int userId, Map<Integer, Integer> lines) {
+        return new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("lineItems", encode(lines))
+                .addValue("updatedAt", Timestamp.from(Instant.now()));
+    }
+
+    private static String encode(Map<Integer, Integer> lines) {
+        StringJoiner joiner = new StringJoiner(",");
+        lines.forEach((skuId, quantity) -> joiner.add(skuId + ":" + quantity));
+        return joiner.toString();
+    }
+
+    private static Map<Integer, Integer> decode(String lineItems) {
+        Map<Integer, Integer> lines = new LinkedHashMap<>();
+        if (lineItems.isEmpty()) {
+            return lines;
+        }
+        for (String line : lineItems.split(",")) {
+            int separator = line.indexOf(':');
+            lines.put(Integer.parseInt(line.substring(0, separator)), Integer.parseInt(line.substring(separator + 1)));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,48 @@
+package com.commerce.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+
+// Chunked deletes of expired session rows. Each call is one autocommitted statement that takes the limit
+// oldest expired rows in expiry order from the expiry index and removes them by primary key, so row locks
+// are held only for that chunk and consecutive chunks walk the index forward. The ordered pick sits in a
+// derived table rather than DELETE ... ORDER BY ... LIMIT: MySQL materializes it before deleting (so the
+// table may be both read and deleted from), and H2, which the tests run on, has no ORDER BY in DELETE.
+@Repository
+@RequiredArgsConstructor
+public class ExpiredSessionRepository {
+    private static final String DELETE_REFRESH_TOKENS_SQL = """
+            DELETE FROM refresh_token WHERE token_hash IN (
+                SELECT token_hash FROM (
+                    SELECT token_hash FROM refresh_token WHERE expiration_time < :now
+                    ORDER BY expiration_time LIMIT :limit) expired)""";
+    private static final String DELETE_OAUTH_TOKENS_SQL = """
+            DELETE FROM oauth_token WHERE id IN (
+                SELECT id FROM (
+                    SELECT id FROM oauth_token WHERE expires_at < :now
+                    ORDER BY expires_at LIMIT :limit) expired)""";
+    private static final String DELETE_REVOKED_TOKENS_SQL = """
+            DELETE FROM revoked_token WHERE token_id IN (
+                SELECT token_id FROM (
+                    SELECT token_id FROM revoked_token WHERE expires_at < :now
+                    ORDER BY expires_at LIMIT :limit) expired)""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public int deleteExpiredRefreshTokens(Instant now, int limit) {
+        return jdbcTemplate.update(DELETE_REFRESH_TOKENS_SQL, Map.of("now", Timestamp.from(now), "limit", limit));
+    }
+
+    public int deleteExpiredOAuthTokens(Instant now, int limit) {
+        return jdbcTemplate.update(DELETE_OAUTH_TOKENS_SQL, Map.of("now", Timestamp.from(now), "limit", limit));
+    }
+
+    public int deleteExpiredRevokedTokens(Instant now, int limit) {
+        return jdbcTemplate.update(DELETE_REVOKED_TOKENS_SQL, Map.of("now", Timestamp.from(now), "limit", limit));
+    }
+}
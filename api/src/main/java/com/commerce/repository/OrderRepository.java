@@ -0,0 +1,46 @@
+package com.commerce.repository;
+
+import com.commerce.model.entity.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+
+    // One row per item of a pending order, carrying only ids for the user and SKU so callers can
+    // sideload each distinct one once.
+    interface PendingEntryRow {
+        Long getId();
+        Long getOrderId();
+        Integer getUserId();
+        Integer getSkuId();
+        int getQuantity();
+        String getRecipientName();
+        String getPhoneNumber();
+        String getCityCode();
+        String getDistrictCode();
+        String getAddress();
+        String getDeliveryNotes();
+        Instant getCreatedAt();
+    }
+
+    @Query("""
+            select i.id as id, o.id as orderId, o.userId as userId, i.skuId as skuId, i.quantity as quantity,
+                   o.recipientName as recipientName, o.phoneNumber as phoneNumber, o.cityCode as cityCode,
+                   o.districtCode as districtCode, o.address as address, o.deliveryNotes as deliveryNotes,
+                   o.createdAt as createdAt
+            from OrderItem i join i.order o
+            where o.orderStatus = com.commerce.model.entity.OrderStatus.PENDING and i.id > :afterId
+            order by i.id
+            """)
+    Stream<PendingEntryRow> streamPendingEntries(@Param("afterId") long afterId, Limit limit);
+}
@@ -0,0 +1,15 @@
+package com.commerce.repository;
+
+import com.commerce.model.entity.PricingRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface PricingRuleRepository extends JpaRepository<PricingRule, Long> {
+
+    List<PricingRule> findBySkuIdOrderByIdAsc(Integer skuId);
+
+    // Everything that can still apply: rules without an end plus time windows that haven't ended.
+    List<PricingRule> findByEndsAtIsNullOrEndsAtAfter(Instant now);
+}
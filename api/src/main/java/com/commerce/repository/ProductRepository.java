@@ -1,8 +1,29 @@
 package com.commerce.repository;
 
 import com.commerce.model.entity.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends JpaRepository<Product, Integer>, JpaSpecificationExecutor<Product> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProductRepository extends JpaRepository<Product, Integer>, JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
+
+    @Override
+    @EntityGraph(attributePaths = {"variants", "variants.sku"})
+    List<Product> findAll(Specification<Product> spec);
+
+    @Query("select distinct p from Product p left join fetch p.variants v left join fetch v.sku where p.id in :ids")
+    List<Product> findAllWithVariantsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @EntityGraph(attributePaths = {"variants", "variants.sku"})
+    Optional<Product> findWithVariantsById(Integer id);
+
+    List<Product> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
 }
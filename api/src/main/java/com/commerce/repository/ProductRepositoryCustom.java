@@ -0,0 +1,16 @@
+package com.commerce.repository;
+
+import com.commerce.model.entity.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    // One row per (unit type, quantity per unit, price bucket, in stock) combination among the variants
+    // of the products matching the filter, with the number of variants in it.
+    List<FacetRow> findFacetRows(Specification<Product> productFilter, Double minPrice, Double maxPrice, double priceBucketWidth);
+
+    record FacetRow(String unitType, int quantityPerUnit, int priceBucket, boolean inStock, long variants) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.commerce.repository;
+
+import com.commerce.model.entity.Product;
+import com.commerce.model.entity.ProductVariant;
+import com.commerce.model.entity.Sku;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FacetRow> findFacetRows(Specification<Product> productFilter, Double minPrice, Double maxPrice, double priceBucketWidth) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        Join<Product, ProductVariant> variant = product.join("variants");
+        Join<ProductVariant, Sku> sku = variant.join("sku");
+
+        Path<String> unitType = variant.get("unitType");
+        Path<Integer> quantityPerUnit = variant.get("quantityPerUnit");
+        Path<Double> price = sku.get("price");
+        Expression<Number> priceBucket = criteriaBuilder.floor(criteriaBuilder.quot(price, priceBucketWidth));
+        Expression<Integer> inStock = criteriaBuilder.sign(sku.<Integer>get("stockQuantity"));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (productFilter != null) {
+            Predicate predicate = productFilter.toPredicate(product, query, criteriaBuilder);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (minPrice != null) {
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(price, minPrice));
+        }
+        if (maxPrice != null) {
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(price, maxPrice));
+        }
+
+        query.multiselect(unitType, quantityPerUnit, priceBucket, inStock, criteriaBuilder.count(variant))
+                .where(predicates.toArray(Predicate[]::new))
+                .groupBy(unitType, quantityPerUnit, priceBucket, inStock);
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(row -> new FacetRow(
+                        row.get(0, String.class),
+                        row.get(1, Integer.class),
+                        ((Number) row.get(2)).intValue(),
+                        ((Number) row.get(3)).intValue() > 0,
+                        row.get(4, Long.class)
+                ))
+                .toList();
+    }
+}
@@ -2,8 +2,25 @@ package com.commerce.repository;
 
 import com.commerce.model.entity.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Optional;
+
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+    interface StoredToken {
+        Integer getUserId();
+        Instant getExpirationTime();
+    }
+
+    @Query("select r.user.id as userId, r.expirationTime as expirationTime from RefreshToken r where r.tokenHash = :tokenHash")
+    Optional<StoredToken> findStoredToken(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.tokenHash = :tokenHash")
+    int deleteByHash(@Param("tokenHash") String tokenHash);
 }
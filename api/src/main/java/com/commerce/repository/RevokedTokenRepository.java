@@ -0,0 +1,38 @@
+package com.commerce.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+// Ids (jti) of access tokens revoked before they expire. Rows are only needed until expires_at;
+// SessionSweeper deletes them after that.
+@Repository
+@RequiredArgsConstructor
+public class RevokedTokenRepository {
+    private static final String INSERT_SQL = """
+            INSERT INTO revoked_token (token_id, expires_at) VALUES (:tokenId, :expiresAt)
+            ON DUPLICATE KEY UPDATE expires_at = VALUES(expires_at)
+            """;
+    private static final String FIND_ACTIVE_SQL = "SELECT token_id, expires_at FROM revoked_token WHERE expires_at > :now";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void save(String tokenId, Instant expiresAt) {
+        jdbcTemplate.update(INSERT_SQL, Map.of("tokenId", tokenId, "expiresAt", Timestamp.from(expiresAt)));
+    }
+
+    // tokenId -> expiry in epoch millis
+    public Map<String, Long> findActive(Instant now) {
+        Map<String, Long> tokens = new HashMap<>();
+        jdbcTemplate.query(FIND_ACTIVE_SQL, Map.of("now", Timestamp.from(now)),
+                rs -> {
+                    tokens.put(rs.getString("token_id"), rs.getTimestamp("expires_at").getTime());
+                });
+        return tokens;
+    }
+}
@@ -0,0 +1,22 @@
+package com.commerce.repository;
+
+import com.commerce.model.entity.Sku;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface SkuRepository extends JpaRepository<Sku, Integer> {
+
+    // Column projection so loading many SKUs doesn't also pull in their variants and products.
+    interface SkuSummary {
+        Integer getId();
+        Integer getStockQuantity();
+        Double getPrice();
+    }
+
+    @Query("select s.id as id, s.stockQuantity as stockQuantity, s.price as price from Sku s where s.id in :ids")
+    List<SkuSummary> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+}
@@ -0,0 +1,140 @@
+package com.commerce.repository;
+
+import com.commerce.util.MoneyUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+// Set-based stock updates on sku, kept in plain SQL so each change is a single conditional statement
+// instead of a load-modify-save through the entity.
+@Repository
+@RequiredArgsConstructor
+public class SkuStockRepository {
+    private static final String DECREMENT_SQL =
+            "UPDATE sku SET stock_quantity = stock_quantity - :quantity WHERE id = :skuId AND stock_quantity >= :quantity";
+    private static final String ADJUST_SQL =
+            "UPDATE sku SET stock_quantity = stock_quantity + :quantity WHERE id = :skuId";
+    private static final String ADJUST_IF_NON_NEGATIVE_SQL =
+            "UPDATE sku SET stock_quantity = stock_quantity + :quantity WHERE id = :skuId AND stock_quantity + :quantity >= 0";
+    private static final String FIND_STOCK_SQL =
+            "SELECT id, stock_quantity FROM sku WHERE id IN (:skuIds)";
+    private static final String PRODUCT_IDS_SQL =
+            "SELECT s.id, v.product_id FROM product_variant v JOIN sku s ON s.variant_id = v.id WHERE s.id IN (:skuIds)";
+    // in_stock comes first so it sees the old total on MySQL (which assigns left to right) as well as on
+    // databases that evaluate every expression against the old row.
+    private static final String APPLY_AGGREGATE_DELTA_SQL = """
+            UPDATE product SET
+                in_stock = total_stock + :delta > 0,
+                total_stock = total_stock + :delta
+            WHERE id = :productId
+            """;
+    private static final String FIND_DETAILS_SQL = """
+            SELECT s.id, s.price, v.id, v.variant_name, p.id, p.name, s.stock_quantity
+            FROM sku s
+                     JOIN product_variant v ON v.id = s.variant_id
+                     JOIN product p ON p.id = v.product_id
+            WHERE s.id IN (:skuIds)
+            """;
+    private static final String FIND_CHECKPOINT_SQL = "SELECT last_seq FROM hot_stock_checkpoint WHERE id = 1";
+    private static final String UPDATE_CHECKPOINT_SQL = "UPDATE hot_stock_checkpoint SET last_seq = :seq WHERE id = 1";
+    private static final String INSERT_CHECKPOINT_SQL = "INSERT INTO hot_stock_checkpoint (id, last_seq) VALUES (1, :seq)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public record SkuDetails(int skuId, long priceCents, int variantId, String variantName, int productId, String productName,
+                             int stockQuantity) {
+    }
+
+    // One JDBC batch; the result holds the update count of each line in key order (0 = not enough stock).
+    public int[] decrementIfAvailable(SortedMap<Integer, Integer> quantities) {
+        return jdbcTemplate.batchUpdate(DECREMENT_SQL, toParameters(quantities));
+    }
+
+    // Adds signed deltas unconditionally; the result holds the update count of each line in key order.
+    public int[] adjust(SortedMap<Integer, Integer> deltas) {
+        return jdbcTemplate.batchUpdate(ADJUST_SQL, toParameters(deltas));
+    }
+
+    // Like adjust, but a line that would take stock below zero is not applied (update count 0).
+    public int[] adjustIfNonNegative(SortedMap<Integer, Integer> deltas) {
+        return jdbcTemplate.batchUpdate(ADJUST_IF_NON_NEGATIVE_SQL, toParameters(deltas));
+    }
+
+    public Map<Integer, Integer> findStock(Collection<Integer> skuIds) {
+        Map<Integer, Integer> stock = new HashMap<>();
+        if (skuIds.isEmpty()) {
+            return stock;
+        }
+        jdbcTemplate.query(FIND_STOCK_SQL, Map.of("skuIds", List.copyOf(skuIds)),
+                rs -> {
+                    stock.put(rs.getInt(1), rs.getInt(2));
+                });
+        return stock;
+    }
+
+    // Price (in cents, read exactly from the DECIMAL column), names and stock of the given SKUs in one query,
+    // keyed by SKU id; unknown ids are absent.
+    public Map<Integer, SkuDetails> findDetails(Collection<Integer> skuIds) {
+        Map<Integer, SkuDetails> details = new HashMap<>();
+        if (skuIds.isEmpty()) {
+            return details;
+        }
+        jdbcTemplate.query(FIND_DETAILS_SQL, Map.of("skuIds", List.copyOf(skuIds)), rs -> {
+            details.put(rs.getInt(1), new SkuDetails(rs.getInt(1), MoneyUtil.toCents(rs.getBigDecimal(2)), rs.getInt(3),
+                    rs.getString(4), rs.getInt(5), rs.getString(6), rs.getInt(7)));
+        });
+        return details;
+    }
+
+    // Applies the signed SKU stock deltas to the aggregates of the products owning those SKUs and returns
+    // the product ids. Only the product rows are written, one per product in id order; sibling SKUs are
+    // neither read nor locked, so concurrent reservations on other SKUs of the same product don't
+    // serialize or deadlock on each other.
+    public List<Integer> refreshProductAggregates(SortedMap<Integer, Integer> skuDeltas) {
+        SortedMap<Integer, Integer> productDeltas = new TreeMap<>();
+        jdbcTemplate.query(PRODUCT_IDS_SQL, Map.of("skuIds", List.copyOf(skuDeltas.keySet())), rs -> {
+            productDeltas.merge(rs.getInt(2), skuDeltas.get(rs.getInt(1)), Integer::sum);
+        });
+        SqlParameterSource[] parameters = productDeltas.entrySet().stream()
+                .filter(product -> product.getValue() != 0)
+                .map(product -> new MapSqlParameterSource()
+                        .addValue("productId", product.getKey())
+                        .addValue("delta", product.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        if (parameters.length > 0) {
+            jdbcTemplate.batchUpdate(APPLY_AGGREGATE_DELTA_SQL, parameters);
+        }
+        return List.copyOf(productDeltas.keySet());
+    }
+
+    // For stock that appears or disappears with a SKU row (variant added or removed).
+    public void adjustProductAggregate(int productId, int delta) {
+        if (delta != 0) {
+            jdbcTemplate.update(APPLY_AGGREGATE_DELTA_SQL, Map.of("productId", productId, "delta", delta));
+        }
+    }
+
+    // Last hot-stock journal sequence whose deltas are already applied to sku.
+    public long findCheckpoint() {
+        List<Long> seq = jdbcTemplate.queryForList(FIND_CHECKPOINT_SQL, Map.of(), Long.class);
+        return seq.isEmpty() ? 0 : seq.getFirst();
+    }
+
+    public void saveCheckpoint(long seq) {
+        if (jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, Map.of("seq", seq)) == 0) {
+            jdbcTemplate.update(INSERT_CHECKPOINT_SQL, Map.of("seq", seq));
+        }
+    }
+
+    private static SqlParameterSource[] toParameters(SortedMap<Integer, Integer> quantities) {
+        return quantities.entrySet().stream()
+                .map(line -> new MapSqlParameterSource()
+                        .addValue("skuId", line.getKey())
+                        .addValue("quantity", line.getValue()))
+                .toArray(SqlParameterSource[]::new);
+    }
+}
@@ -0,0 +1,103 @@
+package com.commerce.repository;
+
+import com.commerce.model.entity.StockMovement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class StockLedgerRepository {
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO stock_movement (sku_id, delta, reason, created_at) VALUES (:skuId, :delta, :reason, :createdAt)";
+    private static final String MAX_MOVEMENT_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM stock_movement";
+    private static final String SKU_RANGE_SQL =
+            "SELECT MIN(sku_id), MAX(sku_id) FROM stock_movement WHERE id > :afterId AND id <= :upToId";
+    // The movements after each SKU's latest snapshot folded onto that snapshot, for one SKU id range. A plain
+    // SELECT is a consistent (non-locking) read; as the source of an INSERT … SELECT it would take shared
+    // next-key locks on the scanned movements under REPEATABLE READ and block the writers appending to them.
+    private static final String COMPACT_SQL = """
+            SELECT m.sku_id,
+                   MAX(m.id),
+                   COALESCE((SELECT s.quantity FROM stock_snapshot s
+                             WHERE s.sku_id = m.sku_id
+                             ORDER BY s.last_movement_id DESC LIMIT 1), 0) + SUM(m.delta),
+                   MAX(m.created_at)
+            FROM stock_movement m
+            WHERE m.sku_id BETWEEN :fromSkuId AND :toSkuId
+              AND m.id <= :upToId
+              AND m.id > COALESCE((SELECT MAX(s.last_movement_id) FROM stock_snapshot s WHERE s.sku_id = m.sku_id), 0)
+            GROUP BY m.sku_id
+            """;
+    private static final String INSERT_SNAPSHOT_SQL = """
+            INSERT INTO stock_snapshot (sku_id, last_movement_id, quantity, as_of)
+            VALUES (:skuId, :lastMovementId, :quantity, :asOf)
+            """;
+    private static final String LATEST_SNAPSHOT_SQL = """
+            SELECT quantity, last_movement_id FROM stock_snapshot
+            WHERE sku_id = :skuId AND as_of <= :at
+            ORDER BY last_movement_id DESC LIMIT 1
+            """;
+    private static final String MOVEMENTS_SINCE_SQL = """
+            SELECT COALESCE(SUM(delta), 0) FROM stock_movement
+            WHERE sku_id = :skuId AND id > :afterId AND created_at <= :at
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insertMovements(List<StockMovement> movements) {
+        SqlParameterSource[] parameters = movements.stream()
+                .map(movement -> new MapSqlParameterSource()
+                        .addValue("skuId", movement.getSkuId())
+                        .addValue("delta", movement.getDelta())
+                        .addValue("reason", movement.getReason().name())
+                        .addValue("createdAt", Timestamp.from(movement.getCreatedAt())))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, parameters);
+    }
+
+    public long findMaxMovementId() {
+        return jdbcTemplate.queryForObject(MAX_MOVEMENT_ID_SQL, Map.of(), Long.class);
+    }
+
+    // SKU ids touched by movements in (afterId, upToId], as {min, max}; null when there are none.
+    public int[] findSkuRange(long afterId, long upToId) {
+        return jdbcTemplate.queryForObject(SKU_RANGE_SQL, Map.of("afterId", afterId, "upToId", upToId),
+                (rs, rowNum) -> rs.getObject(1) == null ? null : new int[]{rs.getInt(1), rs.getInt(2)});
+    }
+
+    // Returns the number of snapshots written.
+    public int compact(int fromSkuId, int toSkuId, long upToId) {
+        SqlParameterSource[] snapshots = jdbcTemplate.query(COMPACT_SQL,
+                        Map.of("fromSkuId", fromSkuId, "toSkuId", toSkuId, "upToId", upToId),
+                        (rs, rowNum) -> new MapSqlParameterSource()
+                                .addValue("skuId", rs.getInt(1))
+                                .addValue("lastMovementId", rs.getLong(2))
+                                .addValue("quantity", rs.getInt(3))
+                                .addValue("asOf", rs.getTimestamp(4)))
+                .toArray(SqlParameterSource[]::new);
+        if (snapshots.length > 0) {
+            jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_SQL, snapshots);
+        }
+        return snapshots.length;
+    }
+
+    // Latest snapshot taken at or before the given time plus the movements after it up to that time.
+    public int findQuantityAsOf(int skuId, Instant at) {
+        Timestamp timestamp = Timestamp.from(at);
+        List<long[]> snapshot = jdbcTemplate.query(LATEST_SNAPSHOT_SQL, Map.of("skuId", skuId, "at", timestamp),
+                (rs, rowNum) -> new long[]{rs.getInt(1), rs.getLong(2)});
+        long base = snapshot.isEmpty() ? 0 : snapshot.getFirst()[0];
+        long afterId = snapshot.isEmpty() ? 0 : snapshot.getFirst()[1];
+        Long movements = jdbcTemplate.queryForObject(MOVEMENTS_SINCE_SQL,
+                Map.of("skuId", skuId, "afterId", afterId, "at", timestamp), Long.class);
+        return Math.toIntExact(base + movements);
+    }
+}
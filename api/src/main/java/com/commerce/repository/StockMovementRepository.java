@@ -0,0 +1,12 @@
+package com.commerce.repository;
+
+import com.commerce.model.entity.StockMovement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    List<StockMovement> findBySkuIdAndIdGreaterThanOrderByIdAsc(Integer skuId, Long id, Limit limit);
+}
@@ -1,10 +1,16 @@
 package com.commerce.repository;
 
+import com.commerce.model.entity.Role;
 import com.commerce.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
@@ -12,4 +18,20 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    @Query("select u.username from User u")
+    Stream<String> streamUsernames();
+
+    interface TokenEpoch {
+        Integer getId();
+        int getTokenEpoch();
+    }
+
+    // Only users that ever had their tokens revoked; everyone else is implicitly at epoch 0.
+    @Query("select u.id as id, u.tokenEpoch as tokenEpoch from User u where u.tokenEpoch > 0")
+    List<TokenEpoch> findRevokedTokenEpochs();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.role = :role, u.tokenEpoch = u.tokenEpoch + 1 where u.id = :id")
+    int updateRoleAndRevokeTokens(@Param("id") int id, @Param("role") Role role);
 }
@@ -0,0 +1,196 @@
+package com.commerce.search;
+
+import com.commerce.model.entity.Product;
+import com.commerce.repository.ProductRepository;
+import com.commerce.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted index of edge n-grams (token prefixes) over product name and description.
+// Every query token must match a prefix of some indexed token; matches are ranked by field weight,
+// with whole-token matches scoring double.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int MAX_GRAM_LENGTH = 15;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+    private Map<Integer, Map<String, Integer>> documents = new HashMap<>();
+    private List<Runnable> updatesDuringRebuild;
+    private volatile boolean ready = false;
+
+    @Value("${application.search.index.enabled:true}")
+    private boolean enabled;
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            updatesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<String, Map<Integer, Integer>> newPostings = new HashMap<>();
+        Map<Integer, Map<String, Integer>> newDocuments = new HashMap<>();
+        int lastId = 0;
+        List<Product> batch;
+        do {
+            batch = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(REBUILD_BATCH_SIZE));
+            for (Product product : batch) {
+                put(newPostings, newDocuments, product.getId(), product.getName(), product.getDescription());
+                lastId = product.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            documents = newDocuments;
+            updatesDuringRebuild.forEach(Runnable::run);
+            updatesDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index rebuilt: {} products, {} grams in {} ms",
+                newDocuments.size(), newPostings.size(), System.currentTimeMillis() - start);
+    }
+
+    public void index(Product product) {
+        if (!enabled) {
+            return;
+        }
+        int id = product.getId();
+        String name = product.getName();
+        String description = product.getDescription();
+        TransactionUtil.afterCommit(() -> write(() -> put(postings, documents, id, name, description)));
+    }
+
+    public void remove(int id) {
+        if (!enabled) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> write(() -> remove(postings, documents, id)));
+    }
+
+    // Returns ids of products matching every token of the query, best match first.
+    public List<Integer> search(String q) {
+        var tokens = new LinkedHashSet<>(TextNormalizer.tokenize(q));
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<Integer, Integer>> matches = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                Map<Integer, Integer> posting = postings.get(gramKey(token));
+                if (posting == null) {
+                    return List.of();
+                }
+                matches.add(posting);
+            }
+            matches.sort(Comparator.comparingInt(Map::size));
+
+            Map<Integer, Integer> scores = new HashMap<>(matches.get(0));
+            for (int i = 1; i < matches.size() && !scores.isEmpty(); i++) {
+                Map<Integer, Integer> posting = matches.get(i);
+                scores.entrySet().removeIf(entry -> !posting.containsKey(entry.getKey()));
+                scores.replaceAll((id, score) -> score + posting.get(id));
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void put(Map<String, Map<Integer, Integer>> postings,
+                            Map<Integer, Map<String, Integer>> documents,
+                            int id, String name, String description) {
+        remove(postings, documents, id);
+        Map<String, Integer> grams = new HashMap<>();
+        addGrams(grams, name, NAME_WEIGHT);
+        addGrams(grams, description, DESCRIPTION_WEIGHT);
+        grams.forEach((gram, score) -> postings.computeIfAbsent(gram, key -> new HashMap<>()).put(id, score));
+        documents.put(id, grams);
+    }
+
+    private static void remove(Map<String, Map<Integer, Integer>> postings,
+                               Map<Integer, Map<String, Integer>> documents,
+                               int id) {
+        Map<String, Integer> grams = documents.remove(id);
+        if (grams == null) {
+            return;
+        }
+        for (String gram : grams.keySet()) {
+            Map<Integer, Integer> posting = postings.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static void addGrams(Map<String, Integer> grams, String text, int weight) {
+        for (String token : TextNormalizer.tokenize(text)) {
+            int maxLength = Math.min(token.length(), MAX_GRAM_LENGTH);
+            for (int length = 1; length <= maxLength; length++) {
+                int score = length == token.length() ? weight * 2 : weight;
+                grams.merge(token.substring(0, length), score, Integer::sum);
+            }
+        }
+    }
+
+    private static String gramKey(String token) {
+        return token.length() > MAX_GRAM_LENGTH ? token.substring(0, MAX_GRAM_LENGTH) : token;
+    }
+}
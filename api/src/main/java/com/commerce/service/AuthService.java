@@ -1,5 +1,7 @@
 package com.commerce.service;
 
+import com.commerce.cache.RevokedTokenStore;
+import com.commerce.cache.UsernameIndex;
 import com.commerce.model.entity.Role;
 import com.commerce.model.entity.User;
 import com.commerce.model.exception.AppException;
@@ -7,46 +9,72 @@ import com.commerce.model.exception.ErrorCode;
 import com.commerce.model.request.LoginRequest;
 import com.commerce.model.request.SignUpRequest;
 import com.commerce.repository.UserRepository;
+import com.commerce.service.JwtService.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
 
 
+// Password checks and hashing go through PasswordHasher. Login is one read and no write; signup inserts
+// directly and lets the unique key on username reject duplicates. Logout revokes the access token through
+// RevokedTokenStore.
 @Service
 @RequiredArgsConstructor
 public class AuthService {
+    private static final int MAX_USERNAME_LENGTH = 255;
+
     private final UserRepository userRepository;
-    private final AuthenticationManager authenticationManager;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final JwtService jwtService;
+    private final RevokedTokenStore revokedTokenStore;
+    private final UsernameIndex usernameIndex;
 
     public User login(LoginRequest request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
-
-        User user = userRepository.findByUsername(request.getUsername()).orElseThrow(()-> new AppException(
-                ErrorCode.USERNAME_NOT_FOUND,
-                Map.of("username", request.getUsername())
-        ));
-        return userRepository.save(user);
+        User user = request.getUsername() == null ? null : userRepository.findByUsername(request.getUsername()).orElse(null);
+        if (!passwordHasher.matches(request.getPassword(), user != null ? user.getPassword() : null)) {
+            throw new AppException(ErrorCode.INVALID_CREDENTIALS, null);
+        }
+        return user;
     }
 
-    public User register(SignUpRequest request) {
-        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-            throw new AppException(ErrorCode.USERNAME_ALREADY_EXISTS, Map.of("username", request.getUsername()));
+    // Denylists the access token until it expires. Tokens that no longer verify, or carry no id, are left
+    // alone: they are rejected anyway or predate revocation.
+    public void revokeAccessToken(String accessToken) {
+        VerifiedToken token;
+        try {
+            token = jwtService.verify(accessToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            return;
         }
+        if (token.tokenId() != null) {
+            revokedTokenStore.revoke(token.tokenId(), token.expiresAt());
+        }
+    }
 
+    public User register(SignUpRequest request) {
         User newUser = User.builder()
                 .username(request.getUsername())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHasher.encode(request.getPassword()))
                 .role(Role.ROLE_USER)
                 .build();
 
-        return userRepository.save(newUser);
+        try {
+            User saved = userRepository.saveAndFlush(newUser);
+            usernameIndex.add(saved.getUsername());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw new AppException(ErrorCode.USERNAME_ALREADY_EXISTS, Map.of("username", String.valueOf(request.getUsername())));
+        }
     }
 
+    // Most probes for a free name are answered by UsernameIndex without a query.
+    public boolean isUsernameAvailable(String username) {
+        if (username == null || username.isBlank() || username.length() > MAX_USERNAME_LENGTH) {
+            throw new AppException(ErrorCode.INVALID_USERNAME, null);
+        }
+        return usernameIndex.isAvailable(username);
+    }
 }
@@ -0,0 +1,189 @@
+package com.commerce.service;
+
+import com.commerce.cache.CartStore;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import com.commerce.model.request.CartItemRequest;
+import com.commerce.model.request.CheckoutRequest;
+import com.commerce.model.request.PlaceOrderItemRequest;
+import com.commerce.model.request.PlaceOrderRequest;
+import com.commerce.model.response.CartLineResponse;
+import com.commerce.model.response.CartResponse;
+import com.commerce.model.response.OrderResponse;
+import com.commerce.pricing.PricingEngine;
+import com.commerce.repository.SkuStockRepository;
+import com.commerce.repository.SkuStockRepository.SkuDetails;
+import com.commerce.util.MoneyUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Cart edits only touch CartStore. The database is read at validation and checkout, with one batched
+// SKU lookup for all lines; the order itself still goes through OrderService, which re-checks prices
+// and reserves stock.
+@Service
+@RequiredArgsConstructor
+public class CartService {
+    private final CartStore cartStore;
+    private final SkuStockRepository skuStockRepository;
+    private final PricingEngine pricingEngine;
+    private final OrderService orderService;
+    // Users with a checkout running, so a second checkout of the same lines is refused instead of
+    // placing another order.
+    private final Set<Integer> checkingOut = ConcurrentHashMap.newKeySet();
+
+    @Value("${application.cart.max-lines-per-cart:100}")
+    private int maxLinesPerCart;
+
+    public CartResponse get(int userId) {
+        return toResponse(cartStore.get(userId));
+    }
+
+    public CartResponse add(int userId, CartItemRequest request) {
+        requireItem(request, false);
+        return toResponse(cartStore.update(userId, lines -> {
+            Map<Integer, Integer> updated = new LinkedHashMap<>(lines);
+            updated.merge(request.getSkuId(), request.getQuantity(), Math::addExact);
+            return checkSize(updated);
+        }));
+    }
+
+    // Sets the quantity of one line; zero removes it.
+    public CartResponse set(int userId, CartItemRequest request) {
+        requireItem(request, true);
+        return toResponse(cartStore.update(userId, lines -> {
+            Map<Integer, Integer> updated = new LinkedHashMap<>(lines);
+            if (request.getQuantity() == 0) {
+                updated.remove(request.getSkuId());
+            } else {
+                updated.put(request.getSkuId(), request.getQuantity());
+            }
+            return checkSize(updated);
+        }));
+    }
+
+    public void clear(int userId) {
+        cartStore.clear(userId);
+    }
+
+    public CartResponse validate(int userId) {
+        Map<Integer, Integer> lines = cartStore.get(userId);
+        return validate(lines, skuStockRepository.findDetails(lines.keySet()));
+    }
+
+    // Places an order for the validated lines at the prices shown by validation, then removes the ordered
+    // quantities from the cart (lines added meanwhile stay). One checkout per user at a time.
+    public OrderResponse checkout(int userId, CheckoutRequest request) {
+        if (!checkingOut.add(userId)) {
+            throw new AppException(ErrorCode.CHECKOUT_IN_PROGRESS, null);
+        }
+        try {
+            return placeCart(userId, request);
+        } finally {
+            checkingOut.remove(userId);
+        }
+    }
+
+    private OrderResponse placeCart(int userId, CheckoutRequest request) {
+        Map<Integer, Integer> lines = cartStore.get(userId);
+        if (lines.isEmpty()) {
+            throw invalid("cart is empty");
+        }
+        Map<Integer, SkuDetails> skus = skuStockRepository.findDetails(lines.keySet());
+        CartResponse validation = validate(lines, skus);
+        for (CartLineResponse line : validation.getLines()) {
+            if (line.getProblem() != null) {
+                throw new AppException(ErrorCode.valueOf(line.getProblem()), Map.of(
+                        "id", String.valueOf(line.getSkuId()),
+                        "skuId", String.valueOf(line.getSkuId())));
+            }
+        }
+        List<PlaceOrderItemRequest> items = new ArrayList<>(lines.size());
+        lines.forEach((skuId, quantity) -> items.add(new PlaceOrderItemRequest(skuId, quantity,
+                MoneyUtil.toAmount(skus.get(skuId).priceCents()))));
+        OrderResponse order = orderService.place(userId, PlaceOrderRequest.builder()
+                .items(items)
+                .recipientName(request.getRecipientName())
+                .phoneNumber(request.getPhoneNumber())
+                .cityCode(request.getCityCode())
+                .districtCode(request.getDistrictCode())
+                .address(request.getAddress())
+                .deliveryNotes(request.getDeliveryNotes())
+                .notes(request.getNotes())
+                .build());
+        cartStore.update(userId, current -> {
+            Map<Integer, Integer> remaining = new LinkedHashMap<>(current);
+            lines.forEach((skuId, ordered) ->
+                    remaining.computeIfPresent(skuId, (id, quantity) -> quantity > ordered ? quantity - ordered : null));
+            return remaining;
+        });
+        return order;
+    }
+
+    private CartResponse validate(Map<Integer, Integer> lines, Map<Integer, SkuDetails> skus) {
+        long now = System.currentTimeMillis();
+        long totalCents = 0;
+        boolean valid = !lines.isEmpty();
+        List<CartLineResponse> responses = new ArrayList<>(lines.size());
+        for (Map.Entry<Integer, Integer> line : lines.entrySet()) {
+            SkuDetails sku = skus.get(line.getKey());
+            int quantity = line.getValue();
+            if (sku == null) {
+                valid = false;
+                responses.add(CartLineResponse.builder()
+                        .skuId(line.getKey())
+                        .quantity(quantity)
+                        .problem(ErrorCode.SKU_NOT_FOUND.name())
+                        .build());
+                continue;
+            }
+            long subtotalCents = pricingEngine.lineSubtotal(sku.skuId(), sku.priceCents(), quantity, now);
+            totalCents = Math.addExact(totalCents, subtotalCents);
+            boolean inStock = sku.stockQuantity() >= quantity;
+            valid &= inStock;
+            responses.add(CartLineResponse.builder()
+                    .skuId(sku.skuId())
+                    .quantity(quantity)
+                    .productName(sku.productName())
+                    .variantName(sku.variantName())
+                    .unitPrice(MoneyUtil.toAmount(sku.priceCents()))
+                    .subtotal(MoneyUtil.toAmount(subtotalCents))
+                    .problem(inStock ? null : ErrorCode.INSUFFICIENT_STOCK.name())
+                    .build());
+        }
+        return new CartResponse(responses, MoneyUtil.toAmount(totalCents), valid);
+    }
+
+    private Map<Integer, Integer> checkSize(Map<Integer, Integer> lines) {
+        if (lines.size() > maxLinesPerCart) {
+            throw invalid("at most " + maxLinesPerCart + " lines per cart");
+        }
+        return lines;
+    }
+
+    private static void requireItem(CartItemRequest request, boolean allowZero) {
+        if (request.getSkuId() == null || request.getQuantity() < 0 || (!allowZero && request.getQuantity() == 0)) {
+            throw invalid(allowZero ? "quantity must not be negative" : "quantity must be positive");
+        }
+    }
+
+    private static CartResponse toResponse(Map<Integer, Integer> lines) {
+        List<CartLineResponse> responses = new ArrayList<>(lines.size());
+        lines.forEach((skuId, quantity) -> responses.add(CartLineResponse.builder()
+                .skuId(skuId)
+                .quantity(quantity)
+                .build()));
+        return CartResponse.builder().lines(responses).build();
+    }
+
+    private static AppException invalid(String reason) {
+        return new AppException(ErrorCode.INVALID_CART, Map.of("reason", reason));
+    }
+}
@@ -0,0 +1,178 @@
+package com.commerce.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+// Append-only log of hot-stock deltas, one line per reservation: "<seq> <skuId>:<delta>,<skuId>:<delta>...".
+// A record is a single write, so a torn tail after a crash is an unterminated line that replay ignores.
+// The log is split into segments named after their first sequence; a flush rotates to a new segment and
+// deletes the older ones once their deltas are committed together with the checkpoint sequence.
+class HotStockJournal implements AutoCloseable {
+    private static final String PREFIX = "hot-stock-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final Object syncLock = new Object();
+
+    private FileChannel channel;
+    private long segmentStart;
+    private long lastSeq;
+    private volatile long syncedSeq;
+
+    record Replay(SortedMap<Integer, Integer> deltas, long lastSeq) {
+    }
+
+    HotStockJournal(Path directory, boolean fsync, long lastSeq) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.lastSeq = lastSeq;
+        this.syncedSeq = lastSeq;
+        Files.createDirectories(directory);
+        openSegment();
+    }
+
+    // Sums the deltas of every complete record after the checkpoint, across all segments on disk.
+    static Replay replay(Path directory, long checkpoint) throws IOException {
+        SortedMap<Integer, Integer> deltas = new TreeMap<>();
+        long lastSeq = checkpoint;
+        for (Path segment : segments(directory)) {
+            String content = Files.readString(segment, StandardCharsets.UTF_8);
+            int end = content.lastIndexOf('\n');
+            if (end < 0) {
+                continue;
+            }
+            for (String line : content.substring(0, end).split("\n")) {
+                int space = line.indexOf(' ');
+                long seq = Long.parseLong(line.substring(0, space));
+                lastSeq = Math.max(lastSeq, seq);
+                if (seq <= checkpoint) {
+                    continue;
+                }
+                for (String entry : line.substring(space + 1).split(",")) {
+                    int colon = entry.indexOf(':');
+                    deltas.merge(Integer.parseInt(entry.substring(0, colon)),
+                            Integer.parseInt(entry.substring(colon + 1)), Integer::sum);
+                }
+            }
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        return new Replay(deltas, lastSeq);
+    }
+
+    static boolean hasSegments(Path directory) throws IOException {
+        return !segments(directory).isEmpty();
+    }
+
+    static void deleteAll(Path directory) throws IOException {
+        for (Path segment : segments(directory)) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    // Writes one record and runs onAppended under the journal lock, so a concurrent rotate never
+    // separates a record from the in-memory delta it stands for. Returns the record's sequence.
+    synchronized long append(Map<Integer, Integer> deltas, Runnable onAppended) throws IOException {
+        long seq = lastSeq + 1;
+        StringBuilder record = new StringBuilder().append(seq).append(' ');
+        deltas.forEach((skuId, delta) -> record.append(skuId).append(':').append(delta).append(','));
+        record.setCharAt(record.length() - 1, '\n');
+        ByteBuffer buffer = ByteBuffer.wrap(record.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        lastSeq = seq;
+        onAppended.run();
+        return seq;
+    }
+
+    // Group fsync: whoever holds the lock forces everything written so far, so callers queued
+    // behind it usually find their record already durable and return without another force.
+    void awaitDurable(long seq) throws IOException {
+        if (!fsync || syncedSeq >= seq) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedSeq >= seq) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            synchronized (this) {
+                target = lastSeq;
+                current = channel;
+            }
+            current.force(false);
+            syncedSeq = target;
+        }
+    }
+
+    // Starts a new segment, running snapshot under the journal lock, and returns the last sequence of the
+    // closed segments. Returns -1 without rotating when nothing was written since the previous rotation.
+    // Takes syncLock first (same order as awaitDurable) so a group fsync never hits a closed channel.
+    long rotate(Runnable snapshot) throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (lastSeq < segmentStart) {
+                    return -1;
+                }
+                snapshot.run();
+                long seq = lastSeq;
+                if (fsync) {
+                    channel.force(false);
+                    syncedSeq = seq;
+                }
+                channel.close();
+                openSegment();
+                return seq;
+            }
+        }
+    }
+
+    // Deletes every segment except the current one; only valid once their deltas are committed.
+    synchronized void deleteClosedSegments() throws IOException {
+        Path current = segmentPath(segmentStart);
+        for (Path segment : segments(directory)) {
+            if (!segment.equals(current)) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void openSegment() throws IOException {
+        segmentStart = lastSeq + 1;
+        channel = FileChannel.open(segmentPath(segmentStart),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long firstSeq) {
+        return directory.resolve(PREFIX + String.format("%019d", firstSeq) + SUFFIX);
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+}
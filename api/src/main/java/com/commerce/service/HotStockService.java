@@ -0,0 +1,285 @@
+package com.commerce.service;
+
+import com.commerce.cache.ProductCache;
+import com.commerce.cache.ProductJsonCache;
+import com.commerce.model.entity.StockMovementReason;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import com.commerce.repository.SkuStockRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Opt-in mode for flash-sale SKUs: their stock lives in lock-free in-memory counters seeded from sku,
+// reservations never touch the row, and net deltas are written back in batches. Every change is journaled
+// before it is acknowledged and the journal is replayed on startup past the checkpoint stored with the last
+// flush, so unflushed deltas survive a crash. Only valid with a single application instance, and while a
+// SKU is hot its stock must be changed through StockService rather than the product admin update.
+@Slf4j
+@Service
+public class HotStockService {
+    private final SkuStockRepository skuStockRepository;
+    private final StockMovementRecorder stockMovementRecorder;
+    private final ProductCache productCache;
+    private final ProductJsonCache productJsonCache;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Set<Integer> skuIds;
+    private final int flushThreshold;
+    private final Path journalDirectory;
+    private final boolean journalFsync;
+
+    private final Map<Integer, HotSku> skus = new HashMap<>();
+    private final AtomicInteger unflushedChanges = new AtomicInteger();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    // Set when closed segments are committed but could not be deleted; guarded by flushLock.
+    private boolean closedSegmentsPending;
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hot-stock-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private HotStockJournal journal;
+
+    private static final class HotSku {
+        private final AtomicInteger available;
+        // Net change not yet written to sku.stock_quantity (negative while reservations dominate).
+        private final AtomicInteger unflushed = new AtomicInteger();
+
+        private HotSku(int available) {
+            this.available = new AtomicInteger(available);
+        }
+    }
+
+    public HotStockService(SkuStockRepository skuStockRepository,
+                           StockMovementRecorder stockMovementRecorder,
+                           ProductCache productCache,
+                           ProductJsonCache productJsonCache,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${application.stock.hot.enabled:false}") boolean enabled,
+                           @Value("${application.stock.hot.sku-ids:}") List<Integer> skuIds,
+                           @Value("${application.stock.hot.flush-threshold:500}") int flushThreshold,
+                           @Value("${application.stock.hot.journal-dir:./data/hot-stock}") String journalDirectory,
+                           @Value("${application.stock.hot.journal-fsync:true}") boolean journalFsync) {
+        this.skuStockRepository = skuStockRepository;
+        this.stockMovementRecorder = stockMovementRecorder;
+        this.productCache = productCache;
+        this.productJsonCache = productJsonCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.skuIds = Set.copyOf(skuIds);
+        this.flushThreshold = flushThreshold;
+        this.journalDirectory = Path.of(journalDirectory);
+        this.journalFsync = journalFsync;
+    }
+
+    // Runs before the web server accepts requests, so no reservation can race the replay or the seeding.
+    // Replay also runs with the mode switched off, so turning it off never drops journaled deltas.
+    @PostConstruct
+    public void init() throws IOException {
+        long lastSeq = recover();
+        if (!enabled || skuIds.isEmpty()) {
+            return;
+        }
+        skuStockRepository.findStock(skuIds).forEach((id, stock) -> skus.put(id, new HotSku(stock)));
+        journal = new HotStockJournal(journalDirectory, journalFsync, lastSeq);
+        log.info("Hot stock mode enabled for skus {}", skus.keySet());
+    }
+
+    public boolean isHot(int skuId) {
+        return skus.containsKey(skuId);
+    }
+
+    public OptionalInt available(int skuId) {
+        HotSku sku = skus.get(skuId);
+        return sku == null ? OptionalInt.empty() : OptionalInt.of(sku.available.get());
+    }
+
+    // Takes every line or none; a line that can't be satisfied puts back the ones already taken.
+    public void reserve(SortedMap<Integer, Integer> quantities) {
+        OptionalInt shortSku = tryReserve(quantities);
+        if (shortSku.isPresent()) {
+            throw new AppException(ErrorCode.INSUFFICIENT_STOCK, Map.of("skuId", String.valueOf(shortSku.getAsInt())));
+        }
+    }
+
+    // Same as reserve, but returns the first SKU that is short instead of throwing.
+    public OptionalInt tryReserve(SortedMap<Integer, Integer> quantities) {
+        List<Map.Entry<Integer, Integer>> taken = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> line : quantities.entrySet()) {
+            if (!take(skus.get(line.getKey()).available, line.getValue())) {
+                taken.forEach(done -> skus.get(done.getKey()).available.addAndGet(done.getValue()));
+                return OptionalInt.of(line.getKey());
+            }
+            taken.add(line);
+        }
+        SortedMap<Integer, Integer> deltas = new TreeMap<>();
+        quantities.forEach((skuId, quantity) -> deltas.put(skuId, -quantity));
+        try {
+            record(deltas);
+        } catch (RuntimeException e) {
+            quantities.forEach((skuId, quantity) -> skus.get(skuId).available.addAndGet(quantity));
+            throw e;
+        }
+        return OptionalInt.empty();
+    }
+
+    public void release(SortedMap<Integer, Integer> quantities) {
+        record(quantities);
+        quantities.forEach((skuId, quantity) -> skus.get(skuId).available.addAndGet(quantity));
+    }
+
+    @Scheduled(fixedDelayString = "${application.stock.hot.flush-interval-ms:1000}")
+    public void flush() {
+        if (journal == null) {
+            return;
+        }
+        synchronized (flushLock) {
+            if (closedSegmentsPending) {
+                deleteClosedSegments();
+            }
+            SortedMap<Integer, Integer> deltas = new TreeMap<>();
+            long seq;
+            try {
+                seq = journal.rotate(() -> {
+                    unflushedChanges.set(0);
+                    skus.forEach((id, sku) -> {
+                        int delta = sku.unflushed.getAndSet(0);
+                        if (delta != 0) {
+                            deltas.put(id, delta);
+                        }
+                    });
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (seq < 0) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(deltas, seq));
+            } catch (RuntimeException e) {
+                // The closed segments stay on disk and the deltas go back to pending, so the next flush
+                // (or a replay) covers them under a later checkpoint.
+                deltas.forEach((id, delta) -> skus.get(id).unflushed.addAndGet(delta));
+                log.warn("Hot stock flush failed, will retry", e);
+                return;
+            }
+            // Committed: the checkpoint already covers the closed segments, so failing to delete them is
+            // only cleanup (replay skips them) and must not put the deltas back.
+            deleteClosedSegments();
+        }
+    }
+
+    private void deleteClosedSegments() {
+        try {
+            journal.deleteClosedSegments();
+            closedSegmentsPending = false;
+        } catch (IOException e) {
+            closedSegmentsPending = true;
+            log.warn("Could not delete flushed hot stock journal segments, will retry", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flusher.shutdown();
+        if (journal != null) {
+            flush();
+            journal.close();
+        }
+    }
+
+    // Returns the sequence new journal records must continue from, which is never below the checkpoint.
+    private long recover() throws IOException {
+        if (!enabled && !HotStockJournal.hasSegments(journalDirectory)) {
+            return 0;
+        }
+        HotStockJournal.Replay replay = HotStockJournal.replay(journalDirectory, skuStockRepository.findCheckpoint());
+        if (!replay.deltas().isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> apply(replay.deltas(), replay.lastSeq()));
+            log.info("Replayed unflushed hot stock deltas {} up to seq {}", replay.deltas(), replay.lastSeq());
+        }
+        HotStockJournal.deleteAll(journalDirectory);
+        return replay.lastSeq();
+    }
+
+    // Deltas, their HOT_FLUSH movements and the checkpoint commit together, which makes replay
+    // exactly-once. A delta that would take a row below zero (its stock was also lowered outside hot mode)
+    // is clamped to zero instead of failing the flush, which would otherwise retry forever while journal
+    // segments pile up; the deficit is logged as a dead letter for someone to reconcile.
+    private void apply(SortedMap<Integer, Integer> deltas, long seq) {
+        if (!deltas.isEmpty()) {
+            SortedMap<Integer, Integer> applied = new TreeMap<>(deltas);
+            int[] updated = skuStockRepository.adjustIfNonNegative(deltas);
+            SortedMap<Integer, Integer> clamped = new TreeMap<>();
+            int i = 0;
+            for (Integer skuId : deltas.keySet()) {
+                if (updated[i++] == 0) {
+                    clamped.put(skuId, deltas.get(skuId));
+                }
+            }
+            if (!clamped.isEmpty()) {
+                Map<Integer, Integer> stock = skuStockRepository.findStock(clamped.keySet());
+                SortedMap<Integer, Integer> toZero = new TreeMap<>();
+                clamped.forEach((skuId, delta) -> {
+                    int current = stock.getOrDefault(skuId, 0);
+                    toZero.put(skuId, -current);
+                    applied.put(skuId, -current);
+                    log.error("Hot stock dead letter: sku {} delta {} up to seq {} exceeds stock {}, clamped to 0 (deficit {})",
+                            skuId, delta, seq, current, -(current + delta));
+                });
+                skuStockRepository.adjust(toZero);
+            }
+            stockMovementRecorder.record(applied, StockMovementReason.HOT_FLUSH);
+            skuStockRepository.refreshProductAggregates(applied).forEach(id -> {
+                productCache.invalidateProduct(id);
+                productJsonCache.invalidate(id);
+            });
+        }
+        skuStockRepository.saveCheckpoint(seq);
+    }
+
+    private void record(SortedMap<Integer, Integer> deltas) {
+        try {
+            long seq = journal.append(deltas, () ->
+                    deltas.forEach((skuId, delta) -> skus.get(skuId).unflushed.addAndGet(delta)));
+            journal.awaitDurable(seq);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (unflushedChanges.incrementAndGet() >= flushThreshold && flushQueued.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushQueued.set(false);
+                flush();
+            });
+        }
+    }
+
+    private static boolean take(AtomicInteger available, int quantity) {
+        while (true) {
+            int current = available.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (available.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+}
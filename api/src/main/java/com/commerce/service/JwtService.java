@@ -1,7 +1,9 @@
 package com.commerce.service;
 
+import com.commerce.model.entity.Role;
 import com.commerce.model.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -15,17 +17,47 @@ import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
+// The HMAC key and the (immutable, thread-safe) parser are built once. verify() parses and checks the
+// signature of a token exactly once and returns its typed claims; the other accessors are thin wrappers
+// over it.
 @Service
 public class JwtService {
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+    private static final String USER_ID_CLAIM = "userId";
+    private static final String ROLE_CLAIM = "role";
+    private static final String EPOCH_CLAIM = "epoch";
+    private static final String TOKEN_TYPE_CLAIM = "tokenType";
+
+    private final long jwtExpiration;
+    private final long refreshExpiration;
+    private final Key signInKey;
+    private final JwtParser parser;
+
+    // Both kinds are signed with the same key, so the type claim is what keeps a refresh token from being
+    // presented as an access token.
+    public enum TokenType {
+        ACCESS, REFRESH
+    }
 
-    @Value("${application.security.jwt.access-token-expiration}")
-    private long jwtExpiration;
+    // role, tokenId and type are null and epoch 0 for tokens issued before they were added as claims.
+    public record VerifiedToken(int userId, String subject, Role role, int epoch, String tokenId, Instant expiresAt,
+                                TokenType type) {
+        // Access tokens issued before the type claim are told apart by their role claim, which refresh
+        // tokens never carried.
+        public boolean isAccessToken() {
+            return type == TokenType.ACCESS || (type == null && role != null);
+        }
+    }
 
-    @Value("${application.security.jwt.refresh-token.expiration}")
-    private long refreshExpiration;
+    public JwtService(@Value("${application.security.jwt.secret-key}") String secretKey,
+                      @Value("${application.security.jwt.access-token-expiration}") long jwtExpiration,
+                      @Value("${application.security.jwt.refresh-token.expiration}") long refreshExpiration) {
+        this.jwtExpiration = jwtExpiration;
+        this.refreshExpiration = refreshExpiration;
+        this.signInKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+    }
 
     public long getRefreshExpiration() {
         return refreshExpiration * 100000L;
@@ -36,12 +68,29 @@ public class JwtService {
         return jwtExpiration * 1000L;
     }
 
+    // Throws ExpiredJwtException for an expired token and another JwtException (or IllegalArgumentException
+    // for a blank one) for anything else that does not verify.
+    public VerifiedToken verify(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        String role = claims.get(ROLE_CLAIM, String.class);
+        Integer epoch = claims.get(EPOCH_CLAIM, Integer.class);
+        String type = claims.get(TOKEN_TYPE_CLAIM, String.class);
+        return new VerifiedToken(
+                Integer.parseInt(claims.get(USER_ID_CLAIM, String.class)),
+                claims.getSubject(),
+                role != null ? Role.valueOf(role) : null,
+                epoch != null ? epoch : 0,
+                claims.getId(),
+                claims.getExpiration().toInstant(),
+                type != null ? TokenType.valueOf(type) : null);
+    }
+
     public int extractUserId(String token) {
-        return extractClaim(token, claims -> Integer.parseInt(claims.get("userId", String.class)));
+        return verify(token).userId();
     }
 
     public <T> T extractClaim(String token, java.util.function.Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parser.parseClaimsJws(token).getBody();
         try {
             return claimsResolver.apply(claims);
         } catch (Exception e) {
@@ -50,74 +99,46 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token) {
-        return !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        var expiration = extractExpiration(token);
-        var currentTime = new Date();
-        var isBefore = expiration.before(new Date());
-        return extractExpiration(token).before(new Date());
-
-    }
-
-    private Date extractExpiration(String token) {
-        Claims claims = extractAllClaims(token);
-        Object exp = claims.get("exp");
-
-        if (exp instanceof Date) {
-            return (Date) exp;
-        } else if (exp instanceof Integer) {
-            return new Date(((Integer) exp).longValue() * 1000);
-        } else if (exp instanceof Long) {
-            return new Date((Long) exp * 1000);
-        } else if (exp instanceof String) {
-            return new Date(Long.parseLong((String) exp) * 1000);
-        } else {
-            throw new RuntimeException("Unexpected format for expiration claim: " + exp);
-        }
+        return verify(token).expiresAt().isAfter(Instant.now());
     }
 
     public Instant extractExpirationInstant(String token) {
-        return extractExpiration(token).toInstant();
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return verify(token).expiresAt();
     }
 
     public String generateToken(User user) {
         Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("userId", String.valueOf(user.getId()));
-        return generateToken(extraClaims, user);
+        extraClaims.put(USER_ID_CLAIM, String.valueOf(user.getId()));
+        extraClaims.put(ROLE_CLAIM, user.getRole().name());
+        extraClaims.put(EPOCH_CLAIM, user.getTokenEpoch());
+        extraClaims.put(TOKEN_TYPE_CLAIM, TokenType.ACCESS.name());
+        return buildToken(extraClaims, user, getTokenExpiration(), UUID.randomUUID().toString());
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, getTokenExpiration());
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put(TOKEN_TYPE_CLAIM, TokenType.ACCESS.name());
+        return buildToken(claims, userDetails, getTokenExpiration(), null);
     }
 
     public String generateRefreshToken(User user) {
         Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("userId", String.valueOf(user.getId()));
-        return buildToken(extraClaims, user, getRefreshExpiration());
+        extraClaims.put(USER_ID_CLAIM, String.valueOf(user.getId()));
+        extraClaims.put(TOKEN_TYPE_CLAIM, TokenType.REFRESH.name());
+        // The random jti keeps two refresh tokens issued to one user in the same second distinct, so each
+        // session gets its own stored row.
+        return buildToken(extraClaims, user, getRefreshExpiration(), UUID.randomUUID().toString());
     }
 
-    private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+    // tokenId becomes the jti claim, which is what logout revokes for access tokens.
+    private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration, String tokenId) {
         return Jwts.builder()
                 .setClaims(extraClaims)
+                .setId(tokenId)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 }
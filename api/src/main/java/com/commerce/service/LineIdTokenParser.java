@@ -1,14 +1,36 @@
 package com.commerce.service;
 
+import com.commerce.cache.LineJwksCache;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
 import java.util.Base64;
+import java.util.Map;
 
+// Parses and validates LINE id_tokens. The token is turned into bytes once and split by index; each
+// segment is base64url-decoded straight from those bytes and read with ObjectReaders built once, so no
+// regex, no intermediate Strings and no per-call ObjectMapper. The signature is checked before the
+// claims are trusted: HS256 with the channel secret, or ES256 against LINE's keys from LineJwksCache.
+// Then issuer, audience (the channel id), expiry and, when given, the nonce are checked.
 @Service
 public class LineIdTokenParser {
+    private static final String ISSUER = "https://access.line.me";
+    private static final long CLOCK_SKEW_SECONDS = 30;
 
     @Getter
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -22,25 +44,138 @@ public class LineIdTokenParser {
         public String name;
         public String email;
         public String picture;
+    }
 
-        // Getters and setters can be added here if needed
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Header(String alg, String kid) {
+    }
+
+    private final ObjectReader headerReader;
+    private final ObjectReader payloadReader;
+    private final LineJwksCache jwksCache;
+    private final String channelId;
+    private final ThreadLocal<Mac> hmac;
+
+    public LineIdTokenParser(ObjectMapper objectMapper,
+                             LineJwksCache jwksCache,
+                             @Value("${application.line.channel-id:}") String channelId,
+                             @Value("${application.line.channel-secret:}") String channelSecret) {
+        this.headerReader = objectMapper.readerFor(Header.class);
+        this.payloadReader = objectMapper.readerFor(LineIdTokenPayload.class);
+        this.jwksCache = jwksCache;
+        this.channelId = channelId;
+        SecretKeySpec key = channelSecret.isEmpty()
+                ? null
+                : new SecretKeySpec(channelSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.hmac = ThreadLocal.withInitial(() -> {
+            if (key == null) {
+                return null;
+            }
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
     }
 
     public LineIdTokenPayload parseIdToken(String idToken) {
-        String[] parts = idToken.split("\\.");
-        if (parts.length != 3) {
-            throw new IllegalArgumentException("Invalid JWT format for LINE id_token");
+        return parseIdToken(idToken, null);
+    }
+
+    // expectedNonce is the nonce sent with the authorization request; null skips the check.
+    public LineIdTokenPayload parseIdToken(String idToken, String expectedNonce) {
+        if (idToken == null) {
+            throw invalid("missing id_token");
         }
+        byte[] token = idToken.getBytes(StandardCharsets.US_ASCII);
+        int firstDot = indexOf(token, 0);
+        int secondDot = firstDot < 0 ? -1 : indexOf(token, firstDot + 1);
+        if (secondDot < 0 || indexOf(token, secondDot + 1) >= 0) {
+            throw invalid("malformed token");
+        }
+
+        Header header = read(headerReader, decode(token, 0, firstDot));
+        verifySignature(header, token, secondDot, decode(token, secondDot + 1, token.length));
+        LineIdTokenPayload payload = read(payloadReader, decode(token, firstDot + 1, secondDot));
 
-        String payloadBase64 = parts[1];
-        byte[] decodedBytes = Base64.getUrlDecoder().decode(payloadBase64);
-        String payloadJson = new String(decodedBytes);
+        if (!ISSUER.equals(payload.iss)) {
+            throw invalid("unexpected issuer");
+        }
+        if (channelId.isEmpty() || !channelId.equals(payload.aud)) {
+            throw invalid("unexpected audience");
+        }
+        if (payload.exp + CLOCK_SKEW_SECONDS <= System.currentTimeMillis() / 1000) {
+            throw invalid("token expired");
+        }
+        if (expectedNonce != null && !expectedNonce.equals(payload.nonce)) {
+            throw invalid("nonce mismatch");
+        }
+        return payload;
+    }
 
+    // The signing input is the ASCII bytes before the second dot.
+    private void verifySignature(Header header, byte[] token, int signedLength, ByteBuffer signature) {
+        byte[] actual = new byte[signature.remaining()];
+        signature.get(actual);
+        boolean valid;
+        if ("HS256".equals(header.alg())) {
+            Mac mac = hmac.get();
+            if (mac == null) {
+                throw invalid("HS256 tokens need a channel secret");
+            }
+            mac.update(token, 0, signedLength);
+            valid = MessageDigest.isEqual(mac.doFinal(), actual);
+        } else if ("ES256".equals(header.alg())) {
+            PublicKey key = header.kid() == null ? null : jwksCache.get(header.kid());
+            if (key == null) {
+                throw invalid("unknown signing key");
+            }
+            try {
+                // JWS carries R || S; the P1363 variant verifies that form without converting to DER.
+                Signature verifier = Signature.getInstance("SHA256withECDSAinP1363Format");
+                verifier.initVerify(key);
+                verifier.update(token, 0, signedLength);
+                valid = verifier.verify(actual);
+            } catch (GeneralSecurityException e) {
+                valid = false;
+            }
+        } else {
+            throw invalid("unsupported algorithm");
+        }
+        if (!valid) {
+            throw invalid("bad signature");
+        }
+    }
+
+    private static ByteBuffer decode(byte[] token, int from, int to) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            return mapper.readValue(payloadJson, LineIdTokenPayload.class);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to parse LINE id_token payload", e);
+            return Base64.getUrlDecoder().decode(ByteBuffer.wrap(token, from, to - from));
+        } catch (IllegalArgumentException e) {
+            throw invalid("malformed base64");
         }
     }
+
+    private static <T> T read(ObjectReader reader, ByteBuffer json) {
+        try {
+            return reader.readValue(json.array(), json.arrayOffset() + json.position(), json.remaining());
+        } catch (IOException e) {
+            throw invalid("malformed json");
+        }
+    }
+
+    private static int indexOf(byte[] token, int from) {
+        for (int i = from; i < token.length; i++) {
+            if (token[i] == '.') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static AppException invalid(String reason) {
+        return new AppException(ErrorCode.INVALID_ID_TOKEN, Map.of("reason", reason));
+    }
 }
@@ -0,0 +1,226 @@
+package com.commerce.service;
+
+import com.commerce.model.entity.Order;
+import com.commerce.model.entity.OrderItem;
+import com.commerce.model.entity.OrderStatus;
+import com.commerce.model.entity.PaymentStatus;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import com.commerce.model.request.PlaceOrderItemRequest;
+import com.commerce.model.request.PlaceOrderRequest;
+import com.commerce.model.response.OrderResponse;
+import com.commerce.pricing.PricingEngine;
+import com.commerce.repository.OrderRepository;
+import com.commerce.repository.SkuStockRepository;
+import com.commerce.repository.SkuStockRepository.SkuDetails;
+import com.commerce.util.MoneyUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Group commit for order placement: concurrent placements queue up and a single committer thread takes them
+// in groups, validates every SKU of the group with one lookup, reserves stock and inserts all orders and items
+// in one transaction (batched inserts), then completes each caller's future. A placement that is rejected
+// (unknown SKU, changed price, not enough stock) fails alone; if the shared transaction itself fails, the
+// group is retried one placement per transaction so a single bad order can't sink the others.
+@Slf4j
+@Service
+public class OrderCommitter {
+    private final OrderRepository orderRepository;
+    private final SkuStockRepository skuStockRepository;
+    private final StockService stockService;
+    private final PricingEngine pricingEngine;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxGroupSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Placement> queue = new LinkedBlockingQueue<>();
+    private final Thread committer = new Thread(this::commitLoop, "order-committer");
+    private volatile boolean running = true;
+
+    private record Placement(int userId, PlaceOrderRequest request, CompletableFuture<OrderResponse> result) {
+    }
+
+    public OrderCommitter(OrderRepository orderRepository,
+                          SkuStockRepository skuStockRepository,
+                          StockService stockService,
+                          PricingEngine pricingEngine,
+                          EntityManager entityManager,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${application.order.commit.max-group-size:64}") int maxGroupSize,
+                          @Value("${application.order.commit.max-wait-ms:2}") long maxWaitMillis) {
+        this.orderRepository = orderRepository;
+        this.skuStockRepository = skuStockRepository;
+        this.stockService = stockService;
+        this.pricingEngine = pricingEngine;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxGroupSize = maxGroupSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        committer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        committer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        committer.interrupt();
+        committer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public CompletableFuture<OrderResponse> submit(int userId, PlaceOrderRequest request) {
+        CompletableFuture<OrderResponse> result = new CompletableFuture<>();
+        if (!running) {
+            result.completeExceptionally(new IllegalStateException("Order committer is stopped"));
+            return result;
+        }
+        queue.add(new Placement(userId, request, result));
+        return result;
+    }
+
+    private void commitLoop() {
+        List<Placement> group = new ArrayList<>(maxGroupSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Placement first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    break;
+                }
+                group.add(first);
+                // Linger briefly so placements arriving together share one commit.
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (group.size() < maxGroupSize) {
+                    queue.drainTo(group, maxGroupSize - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (group.size() >= maxGroupSize || remaining <= 0) {
+                        break;
+                    }
+                    Placement next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts a blocked wait; commit what was collected and drain the rest.
+            }
+            if (!group.isEmpty()) {
+                commit(group);
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<Placement> group) {
+        Map<Placement, Object> outcomes = new LinkedHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                outcomes.clear();
+                placeAll(group, outcomes);
+            });
+        } catch (RuntimeException e) {
+            if (group.size() > 1) {
+                log.warn("Group commit of {} orders failed, retrying one by one", group.size(), e);
+                group.forEach(placement -> commit(List.of(placement)));
+            } else {
+                group.getFirst().result().completeExceptionally(e);
+            }
+            return;
+        }
+        outcomes.forEach((placement, outcome) -> {
+            if (outcome instanceof OrderResponse response) {
+                placement.result().complete(response);
+            } else {
+                placement.result().completeExceptionally((Throwable) outcome);
+            }
+        });
+    }
+
+    private void placeAll(List<Placement> group, Map<Placement, Object> outcomes) {
+        Set<Integer> skuIds = new HashSet<>();
+        group.forEach(placement -> placement.request().getItems().forEach(item -> skuIds.add(item.getSkuId())));
+        Map<Integer, SkuDetails> skus = skuStockRepository.findDetails(skuIds);
+
+        List<Map.Entry<Placement, Order>> placed = new ArrayList<>();
+        for (Placement placement : group) {
+            try {
+                Order order = toOrder(placement, skus);
+                SortedMap<Integer, Integer> quantities = new TreeMap<>();
+                order.getItems().forEach(item -> quantities.merge(item.getSkuId(), item.getQuantity(), Integer::sum));
+                OptionalInt shortSku = stockService.tryReserve(quantities);
+                if (shortSku.isPresent()) {
+                    throw new AppException(ErrorCode.INSUFFICIENT_STOCK,
+                            Map.of("skuId", String.valueOf(shortSku.getAsInt())));
+                }
+                orderRepository.save(order);
+                placed.add(Map.entry(placement, order));
+            } catch (AppException e) {
+                outcomes.put(placement, e);
+            }
+        }
+        entityManager.flush();
+        placed.forEach(entry -> outcomes.put(entry.getKey(), OrderResponse.from(entry.getValue())));
+    }
+
+    // Amounts are computed in cents and only converted to the entity's BigDecimal columns when stored.
+    private Order toOrder(Placement placement, Map<Integer, SkuDetails> skus) {
+        PlaceOrderRequest request = placement.request();
+        Order order = Order.builder()
+                .userId(placement.userId())
+                .orderStatus(OrderStatus.PENDING)
+                .paymentStatus(PaymentStatus.PENDING)
+                .recipientName(request.getRecipientName())
+                .phoneNumber(request.getPhoneNumber())
+                .cityCode(request.getCityCode())
+                .districtCode(request.getDistrictCode())
+                .address(request.getAddress())
+                .deliveryNotes(request.getDeliveryNotes())
+                .notes(request.getNotes())
+                .createdAt(Instant.now())
+                .items(new ArrayList<>())
+                .build();
+        long now = System.currentTimeMillis();
+        long totalCents = 0;
+        for (PlaceOrderItemRequest itemRequest : request.getItems()) {
+            SkuDetails sku = skus.get(itemRequest.getSkuId());
+            if (sku == null) {
+                throw new AppException(ErrorCode.SKU_NOT_FOUND, Map.of("id", String.valueOf(itemRequest.getSkuId())));
+            }
+            if (itemRequest.getUnitPrice() != null && MoneyUtil.toCents(itemRequest.getUnitPrice()) != sku.priceCents()) {
+                throw new AppException(ErrorCode.PRICE_CHANGED, Map.of("skuId", String.valueOf(sku.skuId())));
+            }
+            long subtotalCents = pricingEngine.lineSubtotal(sku.skuId(), sku.priceCents(),
+                    itemRequest.getQuantity(), now);
+            totalCents = Math.addExact(totalCents, subtotalCents);
+            order.getItems().add(OrderItem.builder()
+                    .order(order)
+                    .skuId(sku.skuId())
+                    .productVariantId(sku.variantId())
+                    .productId(sku.productId())
+                    .productName(sku.productName())
+                    .variantName(sku.variantName())
+                    .quantity(itemRequest.getQuantity())
+                    .unitPrice(MoneyUtil.toDecimal(sku.priceCents()))
+                    .subtotal(MoneyUtil.toDecimal(subtotalCents))
+                    .build());
+        }
+        order.setTotalAmount(MoneyUtil.toDecimal(totalCents));
+        return order;
+    }
+}
@@ -0,0 +1,92 @@
+package com.commerce.service;
+
+import com.commerce.cache.IdempotencyStore;
+import com.commerce.model.entity.Order;
+import com.commerce.model.entity.Role;
+import com.commerce.model.entity.User;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import com.commerce.model.request.PlaceOrderItemRequest;
+import com.commerce.model.request.PlaceOrderRequest;
+import com.commerce.model.response.OrderResponse;
+import com.commerce.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class OrderService {
+    private final OrderCommitter orderCommitter;
+    private final OrderRepository orderRepository;
+    private final long commitTimeoutMillis;
+
+    public OrderService(OrderCommitter orderCommitter,
+                        OrderRepository orderRepository,
+                        @Value("${application.order.commit.timeout-ms:5000}") long commitTimeoutMillis) {
+        this.orderCommitter = orderCommitter;
+        this.orderRepository = orderRepository;
+        this.commitTimeoutMillis = commitTimeoutMillis;
+    }
+
+    // Waits for the group commit that includes this order, but not past the timeout: a stalled committer
+    // (e.g. a slow database) answers 503 instead of holding request threads indefinitely. The placement
+    // stays queued and may still commit, so the request's Idempotency-Key is held until it does and then
+    // replays the order (201, as both order endpoints answer) rather than letting a retry place another.
+    public OrderResponse place(int userId, PlaceOrderRequest request) {
+        validate(request);
+        CompletableFuture<OrderResponse> placement = orderCommitter.submit(userId, request);
+        try {
+            return placement.get(commitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            IdempotencyStore.holdUntilDone(placement, HttpStatus.CREATED.value());
+            throw new AppException(ErrorCode.ORDER_PLACEMENT_TIMEOUT, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IdempotencyStore.holdUntilDone(placement, HttpStatus.CREATED.value());
+            throw new AppException(ErrorCode.ORDER_PLACEMENT_TIMEOUT, null);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public OrderResponse get(long id, User user) {
+        Order order = orderRepository.findWithItemsById(id)
+                .filter(found -> user.getRole() == Role.ROLE_ADMIN || found.getUserId().equals(user.getId()))
+                .orElseThrow(() -> new AppException(ErrorCode.ORDER_NOT_FOUND, Map.of("id", String.valueOf(id))));
+        return OrderResponse.from(order);
+    }
+
+    private static void validate(PlaceOrderRequest request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw invalid("no items");
+        }
+        for (PlaceOrderItemRequest item : request.getItems()) {
+            if (item.getSkuId() == null || item.getQuantity() <= 0) {
+                throw invalid("item quantity must be positive");
+            }
+        }
+        if (isBlank(request.getRecipientName()) || isBlank(request.getPhoneNumber()) || isBlank(request.getAddress())) {
+            throw invalid("recipient name, phone number and address are required");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static AppException invalid(String reason) {
+        return new AppException(ErrorCode.INVALID_ORDER, Map.of("reason", reason));
+    }
+}
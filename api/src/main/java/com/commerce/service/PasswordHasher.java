@@ -0,0 +1,87 @@
+package com.commerce.service;
+
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs bcrypt on a small fixed pool with a bounded queue, so a login storm uses at most `threads` cores
+// and the rest of the request threads keep serving other traffic. When the queue is full the caller gets
+// AUTH_BUSY (429) right away instead of waiting behind it.
+@Component
+public class PasswordHasher {
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    // Matched against when the username is unknown, so both cases cost one hash.
+    private final String dummyHash;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Value("${application.security.hashing.threads:0}") int threads,
+                          @Value("${application.security.hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                    Thread thread = new Thread(r, "password-hasher-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = passwordEncoder.encode("dummy-password");
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    // A null encodedPassword (unknown user) is checked against the dummy hash and never matches.
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null) {
+            return false;
+        }
+        boolean known = encodedPassword != null && !encodedPassword.isEmpty();
+        boolean matches = run(() -> passwordEncoder.matches(rawPassword, known ? encodedPassword : dummyHash));
+        return known && matches;
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new AppException(ErrorCode.AUTH_BUSY, null);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AppException(ErrorCode.AUTH_BUSY, null);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,107 @@
+package com.commerce.service;
+
+import com.commerce.model.response.AuditResponse;
+import com.commerce.model.response.SkuResponse;
+import com.commerce.model.response.UserResponse;
+import com.commerce.repository.OrderRepository;
+import com.commerce.repository.OrderRepository.PendingEntryRow;
+import com.commerce.repository.SkuRepository;
+import com.commerce.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Writes {orderEntries, users, skus} straight to the response: entries are streamed from a single
+// query while the distinct user and SKU ids are collected, then each set is loaded with one IN query
+// and written once, so entries only carry userId/skuId.
+@Service
+@RequiredArgsConstructor
+public class PendingOrderEntryService {
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final SkuRepository skuRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${application.order.pending-entries.max-limit:5000}")
+    private int maxLimit;
+
+    @Transactional(readOnly = true)
+    public void write(long afterId, int limit, OutputStream out) throws IOException {
+        Set<Integer> userIds = new LinkedHashSet<>();
+        Set<Integer> skuIds = new LinkedHashSet<>();
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("orderEntries");
+        try (Stream<PendingEntryRow> rows = orderRepository.streamPendingEntries(afterId,
+                Limit.of(Math.max(1, Math.min(limit, maxLimit))))) {
+            rows.forEach(row -> {
+                userIds.add(row.getUserId());
+                skuIds.add(row.getSkuId());
+                writeEntry(generator, row);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("users");
+        if (!userIds.isEmpty()) {
+            for (var user : userRepository.findAllById(userIds)) {
+                generator.writeObject(UserResponse.from(user));
+            }
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("skus");
+        if (!skuIds.isEmpty()) {
+            for (var sku : skuRepository.findSummariesByIdIn(skuIds)) {
+                generator.writeObject(SkuResponse.builder()
+                        .id(sku.getId())
+                        .stockQuantity(sku.getStockQuantity())
+                        .price(sku.getPrice())
+                        .build());
+            }
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    private static void writeEntry(JsonGenerator generator, PendingEntryRow row) {
+        try {
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.getId());
+            generator.writeNumberField("orderId", row.getOrderId());
+            generator.writeNumberField("orderItemId", row.getId());
+            generator.writeNumberField("userId", row.getUserId());
+            generator.writeNumberField("skuId", row.getSkuId());
+            generator.writeNumberField("quantity", row.getQuantity());
+            generator.writeObjectFieldStart("delivery");
+            generator.writeStringField("recipientName", row.getRecipientName());
+            generator.writeStringField("phoneNumber", row.getPhoneNumber());
+            generator.writeStringField("cityCode", row.getCityCode());
+            generator.writeStringField("districtCode", row.getDistrictCode());
+            generator.writeStringField("address", row.getAddress());
+            generator.writeStringField("notes", row.getDeliveryNotes());
+            generator.writeEndObject();
+            generator.writeObjectField("audit", AuditResponse.builder()
+                    .createdAt(row.getCreatedAt())
+                    .createdBy(row.getUserId())
+                    .build());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.commerce.service;
+
+import com.commerce.model.entity.PricingRule;
+import com.commerce.model.entity.PricingRuleType;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import com.commerce.model.request.PricingRuleRequest;
+import com.commerce.model.response.PricingRuleResponse;
+import com.commerce.pricing.PricingEngine;
+import com.commerce.pricing.PricingRuleTable;
+import com.commerce.repository.PricingRuleRepository;
+import com.commerce.repository.SkuRepository;
+import com.commerce.util.MoneyUtil;
+import com.commerce.util.TransactionUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// CRUD for pricing rules. Every committed change recompiles the whole rule set into a new PricingRuleTable
+// and swaps it into the PricingEngine; the periodic refresh picks up changes made by other instances and
+// drops time windows that have ended.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PricingRuleService {
+    private static final int MAX_BASIS_POINTS = 10_000;
+
+    private final PricingRuleRepository pricingRuleRepository;
+    private final SkuRepository skuRepository;
+    private final PricingEngine pricingEngine;
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    // Synchronized so a slower compile can't install an older rule set over a newer one.
+    @Scheduled(fixedDelayString = "${application.pricing.rules.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        Instant now = Instant.now();
+        PricingRuleTable table = PricingRuleTable.compile(pricingRuleRepository.findByEndsAtIsNullOrEndsAtAfter(now),
+                now.toEpochMilli());
+        pricingEngine.install(table);
+        log.debug("Installed pricing rules for {} skus", table.size());
+    }
+
+    @Transactional(readOnly = true)
+    public List<PricingRuleResponse> list(Integer skuId) {
+        List<PricingRule> rules = skuId == null
+                ? pricingRuleRepository.findAll()
+                : pricingRuleRepository.findBySkuIdOrderByIdAsc(skuId);
+        return rules.stream().map(PricingRuleResponse::from).toList();
+    }
+
+    @Transactional
+    public PricingRuleResponse create(PricingRuleRequest request) {
+        PricingRule rule = new PricingRule();
+        apply(rule, request);
+        pricingRuleRepository.save(rule);
+        TransactionUtil.afterCommit(this::refresh);
+        return PricingRuleResponse.from(rule);
+    }
+
+    @Transactional
+    public PricingRuleResponse update(long id, PricingRuleRequest request) {
+        PricingRule rule = pricingRuleRepository.findById(id).orElseThrow(() -> notFound(id));
+        apply(rule, request);
+        TransactionUtil.afterCommit(this::refresh);
+        return PricingRuleResponse.from(rule);
+    }
+
+    @Transactional
+    public void delete(long id) {
+        PricingRule rule = pricingRuleRepository.findById(id).orElseThrow(() -> notFound(id));
+        pricingRuleRepository.delete(rule);
+        TransactionUtil.afterCommit(this::refresh);
+    }
+
+    private void apply(PricingRule rule, PricingRuleRequest request) {
+        validate(request);
+        if (!skuRepository.existsById(request.getSkuId())) {
+            throw new AppException(ErrorCode.SKU_NOT_FOUND, Map.of("id", String.valueOf(request.getSkuId())));
+        }
+        PricingRuleType type = request.getType();
+        rule.setSkuId(request.getSkuId());
+        rule.setType(type);
+        rule.setMinQuantity(type == PricingRuleType.TIME_WINDOW ? null : request.getMinQuantity());
+        rule.setDiscountBasisPoints(type == PricingRuleType.BUNDLE ? null : request.getDiscountBasisPoints());
+        rule.setBundlePrice(type == PricingRuleType.BUNDLE
+                ? MoneyUtil.toDecimal(MoneyUtil.toCents(request.getBundlePrice()))
+                : null);
+        rule.setStartsAt(type == PricingRuleType.TIME_WINDOW ? request.getStartsAt() : null);
+        rule.setEndsAt(type == PricingRuleType.TIME_WINDOW ? request.getEndsAt() : null);
+    }
+
+    private static void validate(PricingRuleRequest request) {
+        if (request.getSkuId() == null || request.getType() == null) {
+            throw invalid("skuId and type are required");
+        }
+        switch (request.getType()) {
+            case TIER -> {
+                requirePositiveQuantity(request);
+                requireDiscount(request);
+            }
+            case BUNDLE -> {
+                requirePositiveQuantity(request);
+                if (request.getMinQuantity() < 2) {
+                    throw invalid("a bundle needs at least 2 units");
+                }
+                if (request.getBundlePrice() == null || request.getBundlePrice() < 0) {
+                    throw invalid("bundlePrice must not be negative");
+                }
+            }
+            case TIME_WINDOW -> {
+                requireDiscount(request);
+                if (request.getStartsAt() == null || request.getEndsAt() == null
+                        || !request.getStartsAt().isBefore(request.getEndsAt())) {
+                    throw invalid("startsAt must be before endsAt");
+                }
+            }
+        }
+    }
+
+    private static void requirePositiveQuantity(PricingRuleRequest request) {
+        if (request.getMinQuantity() == null || request.getMinQuantity() <= 0) {
+            throw invalid("minQuantity must be positive");
+        }
+    }
+
+    private static void requireDiscount(PricingRuleRequest request) {
+        Integer basisPoints = request.getDiscountBasisPoints();
+        if (basisPoints == null || basisPoints <= 0 || basisPoints > MAX_BASIS_POINTS) {
+            throw invalid("discountBasisPoints must be between 1 and 10000");
+        }
+    }
+
+    private static AppException invalid(String reason) {
+        return new AppException(ErrorCode.INVALID_PRICING_RULE, Map.of("reason", reason));
+    }
+
+    private static AppException notFound(long id) {
+        return new AppException(ErrorCode.PRICING_RULE_NOT_FOUND, Map.of("id", String.valueOf(id)));
+    }
+}
@@ -1,26 +1,77 @@
 package com.commerce.service;
 
+import com.commerce.cache.ProductCache;
+import com.commerce.cache.ProductJsonCache;
 import com.commerce.model.entity.Product;
 import com.commerce.model.entity.ProductVariant;
 import com.commerce.model.entity.Sku;
+import com.commerce.model.entity.StockMovementReason;
 import com.commerce.model.exception.AppException;
 import com.commerce.model.exception.ErrorCode;
 import com.commerce.model.request.CreateProductRequest;
+import com.commerce.model.request.ProductPageRequest;
+import com.commerce.model.request.ProductSort;
+import com.commerce.model.request.ProductSortKey;
+import com.commerce.model.request.ProductView;
 import com.commerce.model.request.UpdateProductRequest;
 import com.commerce.model.request.UpdateProductVariantRequest;
+import com.commerce.model.response.CacheStatsResponse;
+import com.commerce.model.response.FacetCount;
+import com.commerce.model.response.PageInfo;
+import com.commerce.model.response.PaginationResult;
 import com.commerce.model.response.ProductResponse;
 import com.commerce.repository.ProductRepository;
+import com.commerce.repository.ProductRepositoryCustom.FacetRow;
+import com.commerce.search.ProductSearchIndex;
+import com.commerce.util.CursorUtil;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
+    private static final int TOTAL_COUNT_CACHE_MAX_ENTRIES = 1024;
+
     private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCache productCache;
+    private final ProductJsonCache productJsonCache;
+    private final StockService stockService;
+    private final StockMovementRecorder stockMovementRecorder;
+
+    private final Map<String, CachedCount> totalCountCache = new ConcurrentHashMap<>();
+
+    @Value("${application.product.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${application.product.page.total-count-ttl-seconds:30}")
+    private long totalCountTtlSeconds;
+
+    @Value("${application.product.facets.price-bucket-width:10}")
+    private double priceBucketWidth;
+
+    // Most ids bound into one IN list; keeps far below MySQL's 65,535 placeholders per statement.
+    @Value("${application.search.max-bound-ids:1000}")
+    private int maxBoundIds;
+
+    private record CachedCount(long count, long expiresAtMillis) {
+    }
 
     public ProductResponse create(CreateProductRequest request) {
         Product product = Product.builder()
@@ -33,21 +84,35 @@ public class ProductService {
                 .toList();
 
         product.setVariants(variants);
+        product.refreshAggregates();
         productRepository.save(product);
+        stockMovementRecorder.record(stockOf(product.getVariants(), 1), StockMovementReason.INITIAL);
+        searchIndex.index(product);
+        productCache.invalidateQueries();
         return ProductResponse.from(product);
     }
 
+    @Transactional
     public ProductResponse update(Integer id, UpdateProductRequest request) {
-        Product product = productRepository.findById(id).orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND,
+        Product product = productRepository.findWithVariantsById(id).orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND,
                 Map.of("id", String.valueOf(id)
                 )));
+        boolean searchableFieldsChanged = !Objects.equals(product.getName(), request.getName())
+                || !Objects.equals(product.getDescription(), request.getDescription());
         product.setName(request.getName());
         product.setDescription(request.getDescription());
 
         var updatedVariantIds = request.getVariants().stream()
                 .map(UpdateProductVariantRequest::getId).toList();
 
-        product.getVariants().removeIf(variant -> !updatedVariantIds.contains(variant.getId()));
+        var removedVariants = product.getVariants().stream()
+                .filter(variant -> !updatedVariantIds.contains(variant.getId()))
+                .toList();
+        product.getVariants().removeAll(removedVariants);
+        var addedVariants = new ArrayList<ProductVariant>();
+        // Stock edits become deltas against the loaded value, applied set-based after the entity update,
+        // so reservations that land in between are not overwritten.
+        var stockDeltas = new TreeMap<Integer, Integer>();
 
         request.getVariants().forEach(requestVariant -> {
             if(requestVariant.getId() != null) {
@@ -61,6 +126,8 @@ public class ProductService {
                     existingVariant.setQuantityPerUnit(requestVariant.getQuantityPerUnit());
                     existingVariant.setUnitType(requestVariant.getUnitType());
                     existingSku.setPrice(requestVariant.getSku().getPrice());
+                    stockDeltas.put(existingSku.getId(),
+                            requestVariant.getSku().getStockQuantity() - existingSku.getStockQuantity());
                     existingSku.setStockQuantity(requestVariant.getSku().getStockQuantity());
                 }
             } else {
@@ -68,26 +135,356 @@ public class ProductService {
                 Sku newSku = requestVariant.getSku().toEntity(newVariant);
                 newVariant.setSku(newSku);
                 product.getVariants().add(newVariant);
+                addedVariants.add(newVariant);
             }
         });
-        productRepository.save(product);
-        return ProductResponse.from(product);
+        product.refreshAggregates();
+        // The merge cascades to the new variants as managed copies; only those carry the generated ids.
+        Product saved = productRepository.saveAndFlush(product);
+        var savedAddedVariants = saved.getVariants().stream()
+                .filter(variant -> !updatedVariantIds.contains(variant.getId()))
+                .toList();
+        stockService.adjust(stockDeltas);
+        stockService.adjustProductTotal(id, totalStock(addedVariants) - totalStock(removedVariants));
+        stockMovementRecorder.record(stockOf(savedAddedVariants, 1), StockMovementReason.INITIAL);
+        stockMovementRecorder.record(stockOf(removedVariants, -1), StockMovementReason.REMOVED);
+        searchIndex.index(saved);
+        productCache.invalidateProduct(id);
+        productJsonCache.invalidate(id);
+        if (searchableFieldsChanged) {
+            productCache.invalidateQueries();
+        }
+        return ProductResponse.from(saved);
     }
 
 
+    @Transactional
     public void delete(int id) {
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findWithVariantsById(id)
                 .orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND,
                         Map.of("id", String.valueOf(id))));
         productRepository.delete(product);
+        // Deletes (and so locks) the sku rows before their REMOVED movements, as StockMovementRecorder needs.
+        productRepository.flush();
+        stockMovementRecorder.record(stockOf(product.getVariants(), -1), StockMovementReason.REMOVED);
+        searchIndex.remove(id);
+        productCache.invalidateProduct(id);
+        productJsonCache.invalidate(id);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductResponse get(int id, ProductView view) {
+        ProductResponse product = productCache.get(id, key -> {
+            long cacheVersion = productCache.version();
+            return productRepository.findWithVariantsById(key)
+                    .map(loaded -> stamp(ProductResponse.from(loaded), cacheVersion))
+                    .orElseThrow(() -> new AppException(ErrorCode.PRODUCT_NOT_FOUND,
+                            Map.of("id", String.valueOf(key))));
+        });
+        return view == ProductView.COMPACT ? product.toCompact() : product;
     }
 
-    public List<ProductResponse> list(String q) {
+    @Transactional(readOnly = true)
+    public List<ProductResponse> list(String q, ProductView view) {
+        if (isIndexedSearch(q)) {
+            return applyView(productCache.getAll(searchIndex.search(q), this::loadResponses), view);
+        }
         var spec = createSpecification(q);
-        return productRepository.findAll(spec).stream().map(ProductResponse::from).collect(Collectors.toList());
+        return applyView(productCache.getList(queryKey(q), () -> {
+            long cacheVersion = productCache.version();
+            return productRepository.findAll(spec).stream()
+                    .map(loaded -> stamp(ProductResponse.from(loaded), cacheVersion))
+                    .collect(Collectors.toList());
+        }, this::loadResponses), view);
+    }
+
+    public List<CacheStatsResponse> cacheStats() {
+        var stats = new ArrayList<>(productCache.stats());
+        stats.add(productJsonCache.stats());
+        return stats;
+    }
+
+    @Transactional(readOnly = true)
+    public PaginationResult<ProductResponse> page(ProductPageRequest request) {
+        ProductSort sort = ProductSort.parse(request.getSort());
+        ProductView view = ProductView.fromParam(request.getView());
+        int size = Math.max(1, Math.min(request.getSize(), maxPageSize));
+        if (request.getMinPrice() != null && request.getMaxPrice() != null && request.getMinPrice() > request.getMaxPrice()) {
+            throw new AppException(ErrorCode.INVALID_PRICE_RANGE, Map.of(
+                    "minPrice", String.valueOf(request.getMinPrice()),
+                    "maxPrice", String.valueOf(request.getMaxPrice())));
+        }
+        if (isIndexedSearch(request.getQ()) && !request.hasFilters()
+                && (request.getSort() == null || request.getSort().isBlank())) {
+            return pageByRelevance(request, size, view);
+        }
+
+        Specification<Product> filter = createSpecification(request);
+        Specification<Product> spec = filter;
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            spec = spec.and(createKeysetSpecification(sort, request.getCursor()));
+        }
+
+        List<Product> products = productRepository.findBy(spec, query -> query
+                .sortBy(sort.toSort())
+                .limit(size + 1)
+                .all());
+
+        boolean hasNext = products.size() > size;
+        List<Product> page = hasNext ? products.subList(0, size) : products;
+        String next = hasNext ? encodeCursor(sort, page.getLast()) : null;
+        Long totalCount = request.isWithTotal() ? countCached(request.filterKey(), filter) : null;
+
+        return PaginationResult.<ProductResponse>builder()
+                .data(applyView(productCache.getAll(page.stream().map(Product::getId).toList(), this::loadResponses), view))
+                .pageInfo(new PageInfo(next, totalCount, size))
+                .facets(request.isWithFacets() ? facets(request) : null)
+                .build();
+    }
+
+    // Search results are ranked in memory, so the cursor is the position in the ranked list
+    // (re-anchored on the last returned id in case the index changed between requests).
+    private PaginationResult<ProductResponse> pageByRelevance(ProductPageRequest request, int size, ProductView view) {
+        List<Integer> ranked = searchIndex.search(request.getQ());
+        int from = 0;
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            CursorUtil.Cursor cursor = decodeCursor(request.getCursor());
+            int position = ranked.indexOf(cursor.id());
+            try {
+                from = position >= 0 ? position + 1 : Integer.parseInt(cursor.value());
+            } catch (NumberFormatException e) {
+                throw new AppException(ErrorCode.INVALID_CURSOR, null);
+            }
+        }
+        from = Math.min(Math.max(from, 0), ranked.size());
+        int to = Math.min(from + size, ranked.size());
+        List<Integer> ids = ranked.subList(from, to);
+        String next = to < ranked.size() ? CursorUtil.encode(String.valueOf(to), ids.getLast()) : null;
+        Long totalCount = request.isWithTotal() ? (long) ranked.size() : null;
+
+        return PaginationResult.<ProductResponse>builder()
+                .data(applyView(productCache.getAll(ids, this::loadResponses), view))
+                .pageInfo(new PageInfo(next, totalCount, size))
+                .facets(request.isWithFacets() ? facets(request) : null)
+                .build();
+    }
+
+    private boolean isIndexedSearch(String q) {
+        return q != null && !q.isBlank() && searchIndex.isReady();
+    }
+
+    // Loads variants and SKUs for the given products with one join-fetch query per maxBoundIds ids.
+    // Fetch-joining in the page query would break LIMIT, so the selection and the graph load are separate.
+    private Map<Integer, ProductResponse> loadResponses(Set<? extends Integer> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        long cacheVersion = productCache.version();
+        List<Integer> remaining = List.copyOf(ids);
+        Map<Integer, ProductResponse> responses = new HashMap<>();
+        for (int from = 0; from < remaining.size(); from += maxBoundIds) {
+            productRepository.findAllWithVariantsByIdIn(remaining.subList(from, Math.min(from + maxBoundIds, remaining.size())))
+                    .forEach(loaded -> responses.put(loaded.getId(), stamp(ProductResponse.from(loaded), cacheVersion)));
+        }
+        return responses;
+    }
+
+    // The cache version must be read before the load, so an invalidation racing the load is seen as newer.
+    private static ProductResponse stamp(ProductResponse response, long cacheVersion) {
+        response.setCacheVersion(cacheVersion);
+        return response;
+    }
+
+    private static Map<Integer, Integer> stockOf(List<ProductVariant> variants, int sign) {
+        return variants.stream()
+                .map(ProductVariant::getSku)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(Sku::getId, sku -> sign * sku.getStockQuantity()));
+    }
+
+    private static int totalStock(List<ProductVariant> variants) {
+        return stockOf(variants, 1).values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private static List<ProductResponse> applyView(List<ProductResponse> products, ProductView view) {
+        if (view != ProductView.COMPACT) {
+            return products;
+        }
+        return products.stream().map(ProductResponse::toCompact).collect(Collectors.toList());
+    }
+
+    private String queryKey(String q) {
+        return q == null ? "" : q.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private String encodeCursor(ProductSort sort, Product last) {
+        return CursorUtil.encode(sort.key().cursorValue(last), last.getId());
+    }
+
+    Specification<Product> createKeysetSpecification(ProductSort sort, String cursor) {
+        CursorUtil.Cursor decoded = decodeCursor(cursor);
+        Comparable<?> value;
+        try {
+            value = sort.key().parseCursorValue(decoded.value());
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR, null);
+        }
+
+        return (root, query, criteriaBuilder) -> {
+            Path<Integer> id = root.get(ProductSortKey.ID.getAttribute());
+            Predicate afterId = after(criteriaBuilder, id, decoded.id(), sort.isAscending());
+            if (sort.key() == ProductSortKey.ID) {
+                return afterId;
+            }
+            Path<?> key = root.get(sort.key().getAttribute());
+            return criteriaBuilder.or(
+                    after(criteriaBuilder, key, value, sort.isAscending()),
+                    criteriaBuilder.and(criteriaBuilder.equal(key, value), afterId)
+            );
+        };
+    }
+
+    private static CursorUtil.Cursor decodeCursor(String cursor) {
+        try {
+            return CursorUtil.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR, null);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder criteriaBuilder, Expression expression, Comparable value, boolean ascending) {
+        return ascending
+                ? criteriaBuilder.greaterThan(expression, value)
+                : criteriaBuilder.lessThan(expression, value);
+    }
+
+    // Approximate by design: counts are reused for a short TTL instead of running COUNT(*) on every page.
+    private long countCached(String key, Specification<Product> filter) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = totalCountCache.get(key);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            return cached.count();
+        }
+        long count = productRepository.count(filter);
+        if (totalCountCache.size() >= TOTAL_COUNT_CACHE_MAX_ENTRIES) {
+            totalCountCache.clear();
+        }
+        totalCountCache.put(key, new CachedCount(count, now + totalCountTtlSeconds * 1000L));
+        return count;
+    }
+
+    // Facet counts are variant counts from a single GROUP BY over all facet dimensions. Each facet is then
+    // folded in memory applying every selected filter except its own, so sibling values stay visible.
+    // The price range is applied in SQL, so the price facet only covers the selected range.
+    private Map<String, List<FacetCount>> facets(ProductPageRequest request) {
+        List<FacetRow> rows = productRepository.findFacetRows(createSpecification(request.getQ()),
+                request.getMinPrice(), request.getMaxPrice(), priceBucketWidth);
+
+        Map<String, Long> unitTypes = new TreeMap<>();
+        Map<Integer, Long> quantitiesPerUnit = new TreeMap<>();
+        Map<Integer, Long> priceBuckets = new TreeMap<>();
+        Map<Boolean, Long> inStock = new TreeMap<>();
+        for (FacetRow row : rows) {
+            boolean unitTypeMatches = matches(request.getUnitType(), row.unitType());
+            boolean quantityMatches = matches(request.getQuantityPerUnit(), row.quantityPerUnit());
+            boolean stockMatches = request.getInStock() == null || request.getInStock() == row.inStock();
+            if (quantityMatches && stockMatches) {
+                unitTypes.merge(row.unitType(), row.variants(), Long::sum);
+            }
+            if (unitTypeMatches && stockMatches) {
+                quantitiesPerUnit.merge(row.quantityPerUnit(), row.variants(), Long::sum);
+            }
+            if (unitTypeMatches && quantityMatches && stockMatches) {
+                priceBuckets.merge(row.priceBucket(), row.variants(), Long::sum);
+            }
+            if (unitTypeMatches && quantityMatches) {
+                inStock.merge(row.inStock(), row.variants(), Long::sum);
+            }
+        }
+
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        facets.put("unitType", toFacetCounts(unitTypes, Function.identity()));
+        facets.put("quantityPerUnit", toFacetCounts(quantitiesPerUnit, String::valueOf));
+        facets.put("price", toFacetCounts(priceBuckets, this::priceBucketLabel));
+        facets.put("inStock", toFacetCounts(inStock, String::valueOf));
+        return facets;
+    }
+
+    private static <T> boolean matches(List<T> selected, T value) {
+        return selected == null || selected.isEmpty() || selected.contains(value);
+    }
+
+    private static <K> List<FacetCount> toFacetCounts(Map<K, Long> counts, Function<K, String> label) {
+        return counts.entrySet().stream()
+                .map(entry -> new FacetCount(label.apply(entry.getKey()), entry.getValue()))
+                .toList();
+    }
+
+    private String priceBucketLabel(int bucket) {
+        BigDecimal width = BigDecimal.valueOf(priceBucketWidth);
+        BigDecimal from = width.multiply(BigDecimal.valueOf(bucket));
+        return from.stripTrailingZeros().toPlainString() + "-" + from.add(width).stripTrailingZeros().toPlainString();
+    }
+
+    Specification<Product> createSpecification(ProductPageRequest request) {
+        Specification<Product> spec = createSpecification(request.getQ());
+        if (request.hasVariantFilters()) {
+            spec = spec.and(createVariantSpecification(request));
+        }
+        return spec;
+    }
+
+    // Variant filters must hold for the same variant, hence a single correlated EXISTS
+    // (served by the (product_id, unit_type, quantity_per_unit) and (variant_id, price, stock_quantity) indexes).
+    // A price range also implies bounds on the product's min/max price aggregates, and an in-stock variant
+    // implies an in-stock product; both are added as index-friendly pre-filters on product before the
+    // subquery runs. inStock=false matches products with at least one sold-out variant.
+    private Specification<Product> createVariantSpecification(ProductPageRequest request) {
+        return (root, query, criteriaBuilder) -> {
+            Subquery<Integer> subquery = query.subquery(Integer.class);
+            Root<ProductVariant> variant = subquery.from(ProductVariant.class);
+            Join<ProductVariant, Sku> sku = variant.join("sku");
+
+            List<Predicate> variantPredicates = new ArrayList<>();
+            List<Predicate> productPredicates = new ArrayList<>();
+            variantPredicates.add(criteriaBuilder.equal(variant.get("product"), root));
+            if (request.getMinPrice() != null) {
+                variantPredicates.add(criteriaBuilder.greaterThanOrEqualTo(sku.get("price"), request.getMinPrice()));
+                productPredicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("maxPrice"), BigDecimal.valueOf(request.getMinPrice())));
+            }
+            if (request.getMaxPrice() != null) {
+                variantPredicates.add(criteriaBuilder.lessThanOrEqualTo(sku.get("price"), request.getMaxPrice()));
+                productPredicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("minPrice"), BigDecimal.valueOf(request.getMaxPrice())));
+            }
+            if (request.getUnitType() != null && !request.getUnitType().isEmpty()) {
+                variantPredicates.add(variant.get("unitType").in(request.getUnitType()));
+            }
+            if (request.getQuantityPerUnit() != null && !request.getQuantityPerUnit().isEmpty()) {
+                variantPredicates.add(variant.get("quantityPerUnit").in(request.getQuantityPerUnit()));
+            }
+            if (Boolean.TRUE.equals(request.getInStock())) {
+                variantPredicates.add(criteriaBuilder.greaterThan(sku.get("stockQuantity"), 0));
+                productPredicates.add(criteriaBuilder.isTrue(root.get("inStock")));
+            } else if (Boolean.FALSE.equals(request.getInStock())) {
+                variantPredicates.add(criteriaBuilder.lessThanOrEqualTo(sku.get("stockQuantity"), 0));
+            }
+
+            subquery.select(variant.get("id")).where(variantPredicates.toArray(Predicate[]::new));
+            productPredicates.add(criteriaBuilder.exists(subquery));
+            return criteriaBuilder.and(productPredicates.toArray(Predicate[]::new));
+        };
     }
 
+    // Index hits become an id filter only while they fit in one bounded IN list; a broad query (a single
+    // letter over a large catalog) falls back to the LIKE predicate instead of binding every hit.
     Specification<Product> createSpecification(String q) {
+        List<Integer> ids = isIndexedSearch(q) ? searchIndex.search(q) : null;
+        if (ids != null && ids.size() <= maxBoundIds) {
+            return (root, query, criteriaBuilder) -> ids.isEmpty()
+                    ? criteriaBuilder.disjunction()
+                    : root.get("id").in(ids);
+        }
         return (root, query, criteriaBuilder) -> {
             if (q == null || q.isEmpty()) {
                 return criteriaBuilder.conjunction();
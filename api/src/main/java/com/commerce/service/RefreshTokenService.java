@@ -1,31 +1,54 @@
 package com.commerce.service;
 
+import com.commerce.cache.RefreshTokenCache;
+import com.commerce.cache.RefreshTokenCache.StoredRefreshToken;
 import com.commerce.model.entity.RefreshToken;
+import com.commerce.model.entity.User;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
 import com.commerce.repository.RefreshTokenRepository;
+import com.commerce.util.TokenHashUtil;
+import com.commerce.util.TransactionUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import java.util.Optional;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+
+// Refresh tokens are stored and looked up by TokenHashUtil.hash, a fixed 43-character key, with
+// RefreshTokenCache in front of the table.
 @Service
 @RequiredArgsConstructor
 public class RefreshTokenService {
 
     private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenCache refreshTokenCache;
 
-    public void save(RefreshToken refreshToken) {
-        refreshTokenRepository.save(refreshToken);
+    public void save(User user, String token, Instant expirationTime) {
+        String tokenHash = TokenHashUtil.hash(token);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(tokenHash)
+                .user(user)
+                .expirationTime(expirationTime)
+                .build());
+        refreshTokenCache.put(tokenHash, new StoredRefreshToken(user.getId(), expirationTime));
     }
 
+    // Logging out twice, or with a token that is already gone, is not an error. The entry is evicted
+    // after commit so a lookup racing the DELETE cannot reload the row back into the cache.
+    @Transactional
     public void delete(String token) {
-        RefreshToken existingToken = refreshTokenRepository.findById(token).orElseThrow(
-                () -> new RuntimeException("Refresh token not found")
-        );
-        refreshTokenRepository.delete(existingToken);
+        String tokenHash = TokenHashUtil.hash(token);
+        refreshTokenRepository.deleteByHash(tokenHash);
+        TransactionUtil.afterCommit(() -> refreshTokenCache.evict(tokenHash));
     }
 
-    public RefreshToken findById(String token) {
-        return refreshTokenRepository.findById(token).orElseThrow(
-                () -> new RuntimeException("Refresh token not found")
-        );
+    public StoredRefreshToken find(String token) {
+        StoredRefreshToken stored = refreshTokenCache.get(TokenHashUtil.hash(token))
+                .orElseThrow(() -> new AppException(ErrorCode.INVALID_REFRESH_TOKEN, null));
+        if (!stored.expiresAt().isAfter(Instant.now())) {
+            throw new AppException(ErrorCode.REFRESH_TOKEN_EXPIRED, null);
+        }
+        return stored;
     }
-}
\ No newline at end of file
+}
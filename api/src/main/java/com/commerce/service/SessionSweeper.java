@@ -0,0 +1,108 @@
+package com.commerce.service;
+
+import com.commerce.model.response.SessionSweepStatsResponse;
+import com.commerce.repository.ExpiredSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+// Purges expired refresh_token, oauth_token and revoked_token rows. Each table is emptied in chunks of chunk-size rows,
+// one short autocommitted DELETE per chunk with a pause in between, so the sweep never holds many locks
+// and replicas keep up. A run stops after max-chunks per table; the rest waits for the next run. Runs are
+// serialized; counters are atomics so stats() never waits for a run in progress.
+@Slf4j
+@Service
+public class SessionSweeper {
+    private final ExpiredSessionRepository expiredSessionRepository;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final long pauseMillis;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong refreshTokensPurged = new AtomicLong();
+    private final AtomicLong oauthTokensPurged = new AtomicLong();
+    private final AtomicLong revokedTokensPurged = new AtomicLong();
+    private final AtomicLong chunks = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+    private volatile LastRun lastRun;
+
+    private record LastRun(Instant at, long millis, long purged) {
+    }
+
+    public SessionSweeper(ExpiredSessionRepository expiredSessionRepository,
+                          @Value("${application.session.sweep.chunk-size:500}") int chunkSize,
+                          @Value("${application.session.sweep.max-chunks:200}") int maxChunks,
+                          @Value("${application.session.sweep.pause-ms:50}") long pauseMillis) {
+        this.expiredSessionRepository = expiredSessionRepository;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        this.pauseMillis = pauseMillis;
+    }
+
+    // Returns the number of rows purged.
+    @Scheduled(fixedDelayString = "${application.session.sweep.interval-ms:300000}",
+            initialDelayString = "${application.session.sweep.interval-ms:300000}")
+    public synchronized long sweep() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        long refreshTokens = sweep("refresh_token", now, expiredSessionRepository::deleteExpiredRefreshTokens);
+        long oauthTokens = sweep("oauth_token", now, expiredSessionRepository::deleteExpiredOAuthTokens);
+        long revokedTokens = sweep("revoked_token", now, expiredSessionRepository::deleteExpiredRevokedTokens);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        long purged = refreshTokens + oauthTokens + revokedTokens;
+
+        runs.incrementAndGet();
+        refreshTokensPurged.addAndGet(refreshTokens);
+        oauthTokensPurged.addAndGet(oauthTokens);
+        revokedTokensPurged.addAndGet(revokedTokens);
+        totalMillis.addAndGet(millis);
+        lastRun = new LastRun(now, millis, purged);
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens, {} oauth tokens and {} revoked token ids in {} ms",
+                    refreshTokens, oauthTokens, revokedTokens, millis);
+        }
+        return purged;
+    }
+
+    public SessionSweepStatsResponse stats() {
+        LastRun last = lastRun;
+        return SessionSweepStatsResponse.builder()
+                .runs(runs.get())
+                .refreshTokensPurged(refreshTokensPurged.get())
+                .oauthTokensPurged(oauthTokensPurged.get())
+                .revokedTokensPurged(revokedTokensPurged.get())
+                .chunks(chunks.get())
+                .totalMillis(totalMillis.get())
+                .lastRunAt(last != null ? last.at() : null)
+                .lastRunMillis(last != null ? last.millis() : 0)
+                .lastRunPurged(last != null ? last.purged() : 0)
+                .build();
+    }
+
+    private long sweep(String table, Instant now, BiFunction<Instant, Integer, Integer> deleteChunk) {
+        long purged = 0;
+        try {
+            for (int chunk = 0; chunk < maxChunks; chunk++) {
+                int deleted = deleteChunk.apply(now, chunkSize);
+                chunks.incrementAndGet();
+                purged += deleted;
+                if (deleted < chunkSize) {
+                    break;
+                }
+                Thread.sleep(pauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Sweeping expired rows from {} failed", table, e);
+        }
+        return purged;
+    }
+}
@@ -0,0 +1,83 @@
+package com.commerce.service;
+
+import com.commerce.repository.StockLedgerRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Folds new stock movements into per-SKU snapshots. The SKU id range is split recursively and each leaf
+// range is compacted in its own short transaction on a dedicated fork-join pool (the work is JDBC-bound,
+// so the common pool is left alone). Compaction reads movements with consistent reads and only inserts
+// snapshot rows, so it never takes locks that writers wait on. MAX(id) is a safe cut per SKU: a SKU's
+// movements commit in id order (StockMovementRecorder), so one still uncommitted below the cut has no
+// committed successor to be folded past it, and is picked up with that SKU's next compaction.
+@Slf4j
+@Service
+public class StockLedgerCompactor {
+    private final StockLedgerRepository stockLedgerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final int rangeSize;
+    // Movements up to this id are folded into snapshots.
+    private volatile long compactedUpToId;
+
+    public StockLedgerCompactor(StockLedgerRepository stockLedgerRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${application.stock.ledger.compact-parallelism:4}") int parallelism,
+                                @Value("${application.stock.ledger.compact-range-size:1000}") int rangeSize) {
+        this.stockLedgerRepository = stockLedgerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pool = new ForkJoinPool(parallelism);
+        this.rangeSize = rangeSize;
+    }
+
+    // Returns the number of snapshots written.
+    @Scheduled(fixedDelayString = "${application.stock.ledger.compact-interval-ms:60000}")
+    public synchronized int compact() {
+        long upToId = stockLedgerRepository.findMaxMovementId();
+        if (upToId <= compactedUpToId) {
+            return 0;
+        }
+        int[] range = stockLedgerRepository.findSkuRange(compactedUpToId, upToId);
+        int snapshots = range == null ? 0 : pool.invoke(new CompactRange(range[0], range[1], upToId));
+        compactedUpToId = upToId;
+        log.debug("Compacted stock movements up to {} into {} snapshots", upToId, snapshots);
+        return snapshots;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private class CompactRange extends RecursiveTask<Integer> {
+        private final int fromSkuId;
+        private final int toSkuId;
+        private final long upToId;
+
+        private CompactRange(int fromSkuId, int toSkuId, long upToId) {
+            this.fromSkuId = fromSkuId;
+            this.toSkuId = toSkuId;
+            this.upToId = upToId;
+        }
+
+        @Override
+        protected Integer compute() {
+            if ((long) toSkuId - fromSkuId < rangeSize) {
+                return transactionTemplate.execute(status -> stockLedgerRepository.compact(fromSkuId, toSkuId, upToId));
+            }
+            int middle = (int) (((long) fromSkuId + toSkuId) / 2);
+            CompactRange left = new CompactRange(fromSkuId, middle, upToId);
+            CompactRange right = new CompactRange(middle + 1, toSkuId, upToId);
+            left.fork();
+            return right.compute() + left.join();
+        }
+    }
+}
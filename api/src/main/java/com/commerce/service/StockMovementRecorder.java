@@ -0,0 +1,40 @@
+package com.commerce.service;
+
+import com.commerce.model.entity.StockMovement;
+import com.commerce.model.entity.StockMovementReason;
+import com.commerce.repository.StockLedgerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// Stock movements are inserted in the transaction that changes the stock, after its sku rows were
+// updated, so the ledger commits or rolls back with the stock and can't diverge from sku.stock_quantity.
+// Because the caller holds those rows' locks, a SKU's next movement can't be inserted before this
+// transaction ends: per SKU, movement ids and created_at follow commit order, which is what lets the
+// compactor fold everything after a SKU's last snapshot. Hot SKUs don't lock their row on reservation, so
+// HotStockService records their net change when it writes it back.
+@Service
+@RequiredArgsConstructor
+public class StockMovementRecorder {
+    private final StockLedgerRepository stockLedgerRepository;
+
+    // Records one movement per SKU with a nonzero delta, as one batch. Call after the rows are updated.
+    public void record(Map<Integer, Integer> deltas, StockMovementReason reason) {
+        Instant now = Instant.now();
+        List<StockMovement> movements = deltas.entrySet().stream()
+                .filter(delta -> delta.getValue() != 0)
+                .map(delta -> StockMovement.builder()
+                        .skuId(delta.getKey())
+                        .delta(delta.getValue())
+                        .reason(reason)
+                        .createdAt(now)
+                        .build())
+                .toList();
+        if (!movements.isEmpty()) {
+            stockLedgerRepository.insertMovements(movements);
+        }
+    }
+}
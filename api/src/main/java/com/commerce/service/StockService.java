@@ -0,0 +1,205 @@
+package com.commerce.service;
+
+import com.commerce.cache.ProductCache;
+import com.commerce.cache.ProductJsonCache;
+import com.commerce.model.entity.StockMovementReason;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import com.commerce.model.request.StockItemRequest;
+import com.commerce.model.response.StockLevelResponse;
+import com.commerce.model.response.StockMovementResponse;
+import com.commerce.repository.SkuStockRepository;
+import com.commerce.repository.StockLedgerRepository;
+import com.commerce.repository.StockMovementRepository;
+import com.commerce.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Stock changes are set-based conditional updates rather than load-modify-save, so concurrent
+// writers can't lose updates and no row is locked while a request is being processed.
+// Lines for hot SKUs are served from memory by HotStockService instead.
+@Service
+@RequiredArgsConstructor
+public class StockService {
+    private final SkuStockRepository skuStockRepository;
+    private final HotStockService hotStockService;
+    private final StockMovementRecorder stockMovementRecorder;
+    private final StockLedgerRepository stockLedgerRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ProductCache productCache;
+    private final ProductJsonCache productJsonCache;
+
+    // All lines are sent as one JDBC batch and either all apply or none do. Lines are applied in SKU id
+    // order so that two multi-SKU reservations always lock rows in the same order and can't deadlock.
+    @Transactional
+    public void reserve(List<StockItemRequest> items) {
+        OptionalInt shortSku = tryReserve(normalize(items));
+        if (shortSku.isPresent()) {
+            throw new AppException(ErrorCode.INSUFFICIENT_STOCK, Map.of("skuId", String.valueOf(shortSku.getAsInt())));
+        }
+    }
+
+    // Like reserve, but reports the first short SKU instead of throwing, so it can run inside a shared
+    // transaction (order group commit) without marking it rollback-only. Lines already applied are
+    // compensated in the same transaction.
+    @Transactional
+    public OptionalInt tryReserve(SortedMap<Integer, Integer> quantities) {
+        SortedMap<Integer, Integer> lines = new TreeMap<>(quantities);
+        SortedMap<Integer, Integer> hot = extractHot(lines);
+        if (!hot.isEmpty()) {
+            OptionalInt shortSku = hotStockService.tryReserve(hot);
+            if (shortSku.isPresent()) {
+                return shortSku;
+            }
+        }
+        if (!lines.isEmpty()) {
+            int[] updated = skuStockRepository.decrementIfAvailable(lines);
+            SortedMap<Integer, Integer> applied = new TreeMap<>();
+            Integer shortSku = null;
+            int i = 0;
+            for (Map.Entry<Integer, Integer> line : lines.entrySet()) {
+                if (updated[i++] == 0) {
+                    shortSku = shortSku == null ? line.getKey() : shortSku;
+                } else {
+                    applied.put(line.getKey(), line.getValue());
+                }
+            }
+            if (shortSku != null) {
+                if (!applied.isEmpty()) {
+                    skuStockRepository.adjust(applied);
+                }
+                if (!hot.isEmpty()) {
+                    hotStockService.release(hot);
+                }
+                return OptionalInt.of(shortSku);
+            }
+            refreshProducts(negate(lines));
+            stockMovementRecorder.record(negate(lines), StockMovementReason.RESERVE);
+        }
+        if (!hot.isEmpty()) {
+            TransactionUtil.afterRollback(() -> hotStockService.release(hot));
+        }
+        return OptionalInt.empty();
+    }
+
+    @Transactional
+    public void release(List<StockItemRequest> items) {
+        SortedMap<Integer, Integer> lines = normalize(items);
+        SortedMap<Integer, Integer> hot = extractHot(lines);
+        if (!hot.isEmpty()) {
+            TransactionUtil.afterCommit(() -> hotStockService.release(hot));
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+        int[] updated = skuStockRepository.adjust(lines);
+        int i = 0;
+        for (Integer skuId : lines.keySet()) {
+            if (updated[i++] == 0) {
+                throw new AppException(ErrorCode.SKU_NOT_FOUND, Map.of("id", skuId.toString()));
+            }
+        }
+        refreshProducts(lines);
+        stockMovementRecorder.record(lines, StockMovementReason.RELEASE);
+    }
+
+    // Applies signed deltas (admin corrections) without overwriting concurrent reservations; a delta that
+    // would take stock below zero fails the whole adjustment.
+    @Transactional
+    public void adjust(SortedMap<Integer, Integer> deltas) {
+        SortedMap<Integer, Integer> lines = new TreeMap<>(deltas);
+        lines.values().removeIf(delta -> delta == 0);
+        SortedMap<Integer, Integer> hot = extractHot(lines);
+        SortedMap<Integer, Integer> hotTaken = new TreeMap<>();
+        SortedMap<Integer, Integer> hotAdded = new TreeMap<>();
+        hot.forEach((skuId, delta) -> (delta < 0 ? hotTaken : hotAdded).put(skuId, Math.abs(delta)));
+        if (!hotTaken.isEmpty()) {
+            hotStockService.reserve(hotTaken);
+            TransactionUtil.afterRollback(() -> hotStockService.release(hotTaken));
+        }
+        if (!hotAdded.isEmpty()) {
+            TransactionUtil.afterCommit(() -> hotStockService.release(hotAdded));
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+        int[] updated = skuStockRepository.adjustIfNonNegative(lines);
+        int i = 0;
+        for (Integer skuId : lines.keySet()) {
+            if (updated[i++] == 0) {
+                throw new AppException(ErrorCode.INSUFFICIENT_STOCK, Map.of("skuId", skuId.toString()));
+            }
+        }
+        refreshProducts(lines);
+        stockMovementRecorder.record(lines, StockMovementReason.ADJUST);
+    }
+
+    // Product stock aggregates are only written as deltas; this covers stock that came or went with a
+    // whole SKU (variant added or removed) rather than through a SKU row update.
+    @Transactional
+    public void adjustProductTotal(int productId, int delta) {
+        skuStockRepository.adjustProductAggregate(productId, delta);
+    }
+
+    public StockLevelResponse quantityAsOf(int skuId, Instant at) {
+        return new StockLevelResponse(skuId, at, stockLedgerRepository.findQuantityAsOf(skuId, at));
+    }
+
+    public List<StockMovementResponse> movements(int skuId, long afterId, int limit) {
+        return stockMovementRepository.findBySkuIdAndIdGreaterThanOrderByIdAsc(skuId, afterId, Limit.of(limit)).stream()
+                .map(StockMovementResponse::from)
+                .toList();
+    }
+
+    // Keeps the product stock aggregates and cached responses in step with the SKU rows; deltas are the
+    // signed changes just applied to those rows.
+    private void refreshProducts(SortedMap<Integer, Integer> deltas) {
+        skuStockRepository.refreshProductAggregates(deltas).forEach(id -> {
+            productCache.invalidateProduct(id);
+            productJsonCache.invalidate(id);
+        });
+    }
+
+    private SortedMap<Integer, Integer> extractHot(SortedMap<Integer, Integer> lines) {
+        SortedMap<Integer, Integer> hot = new TreeMap<>();
+        lines.entrySet().removeIf(line -> {
+            if (!hotStockService.isHot(line.getKey())) {
+                return false;
+            }
+            hot.put(line.getKey(), line.getValue());
+            return true;
+        });
+        return hot;
+    }
+
+    private static SortedMap<Integer, Integer> negate(Map<Integer, Integer> quantities) {
+        SortedMap<Integer, Integer> deltas = new TreeMap<>();
+        quantities.forEach((skuId, quantity) -> deltas.put(skuId, -quantity));
+        return deltas;
+    }
+
+    private static SortedMap<Integer, Integer> normalize(List<StockItemRequest> items) {
+        if (items == null || items.isEmpty()) {
+            throw new AppException(ErrorCode.INVALID_STOCK_QUANTITY, Map.of("skuId", "", "quantity", "0"));
+        }
+        SortedMap<Integer, Integer> lines = new TreeMap<>();
+        for (StockItemRequest item : items) {
+            if (item.getSkuId() == null || item.getQuantity() <= 0) {
+                throw new AppException(ErrorCode.INVALID_STOCK_QUANTITY, Map.of(
+                        "skuId", String.valueOf(item.getSkuId()),
+                        "quantity", String.valueOf(item.getQuantity())));
+            }
+            lines.merge(item.getSkuId(), item.getQuantity(), Integer::sum);
+        }
+        return lines;
+    }
+}
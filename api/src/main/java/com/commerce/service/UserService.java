@@ -0,0 +1,39 @@
+package com.commerce.service;
+
+import com.commerce.cache.TokenEpochCache;
+import com.commerce.model.entity.Role;
+import com.commerce.model.entity.User;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import com.commerce.model.response.UserResponse;
+import com.commerce.repository.UserRepository;
+import com.commerce.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class UserService {
+    private final UserRepository userRepository;
+    private final TokenEpochCache tokenEpochCache;
+
+    // Access tokens carry the role, so a role change also revokes every token issued before it; the user
+    // gets the new role with the next token from /auth/refresh-token.
+    @Transactional
+    public UserResponse changeRole(int id, Role role) {
+        if (role == null) {
+            throw new AppException(ErrorCode.INVALID_ROLE, null);
+        }
+        if (userRepository.updateRoleAndRevokeTokens(id, role) == 0) {
+            throw new AppException(ErrorCode.USER_NOT_FOUND, Map.of("id", String.valueOf(id)));
+        }
+        User user = userRepository.findById(id).orElseThrow();
+        int epoch = user.getTokenEpoch();
+        // Advancing the epoch also evicts the cached user, so the next refresh reads the new role.
+        TransactionUtil.afterCommit(() -> tokenEpochCache.advance(id, epoch));
+        return UserResponse.from(user);
+    }
+}
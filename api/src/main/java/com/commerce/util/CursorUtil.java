@@ -0,0 +1,25 @@
+package com.commerce.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class CursorUtil {
+    private static final char SEPARATOR = '\n';
+
+    public record Cursor(String value, int id) {
+    }
+
+    public static String encode(String value, int id) {
+        String raw = value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = raw.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new Cursor(raw.substring(0, separator), Integer.parseInt(raw.substring(separator + 1)));
+    }
+}
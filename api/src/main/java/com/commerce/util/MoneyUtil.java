@@ -0,0 +1,30 @@
+package com.commerce.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Money is handled as long minor units (cents) inside the app; these convert at the DECIMAL(…, 2)
+// column and JSON boundaries.
+public class MoneyUtil {
+    public static final int SCALE = 2;
+
+    // Exact for any double read from a DECIMAL(…, 2) column: the scaled value is within rounding
+    // error of an integer, well below half a cent for amounts up to about 10^13.
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // Exact value for a DECIMAL(…, 2) column.
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    // Nearest double to the decimal amount, which maps back to the same DECIMAL(…, 2) value.
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+}
@@ -14,6 +14,7 @@ CREATE TABLE users
     password          VARCHAR(255),
     avatar_url        VARCHAR(255),
     role              ENUM('ROLE_USER', 'ROLE_ADMIN') NOT NULL DEFAULT 'ROLE_USER',
+    token_epoch       INT NOT NULL DEFAULT 0, -- bumped to revoke all access tokens issued before
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     created_by INT,
@@ -24,14 +25,39 @@ CREATE TABLE users
 
 CREATE TABLE refresh_token
 (
-    token              VARCHAR(255) NOT NULL PRIMARY KEY,
+    token_hash         CHAR(43)     NOT NULL PRIMARY KEY, -- SHA-256 of the token, base64url
     user_id            INT          NOT NULL,
     expiration_time    TIMESTAMP    NOT NULL,
     created_at         TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
     CONSTRAINT fk__refresh_token__user_id
         FOREIGN KEY (user_id)
             REFERENCES users (id)
-            ON DELETE CASCADE
+            ON DELETE CASCADE,
+    INDEX idx__refresh_token__expiration_time (expiration_time) -- SessionSweeper deletes in expiry order
+);
+
+CREATE TABLE revoked_token
+(
+    token_id   CHAR(36)  NOT NULL PRIMARY KEY, -- jti of a logged-out access token
+    expires_at TIMESTAMP NOT NULL,             -- when the token expires anyway; the row is swept after
+    INDEX idx__revoked_token__expires_at (expires_at)
+);
+
+CREATE TABLE oauth_token
+(
+    id                  INT AUTO_INCREMENT PRIMARY KEY,
+    user_id             INT,
+    third_party_user_id VARCHAR(255) UNIQUE,
+    access_token        TEXT      NOT NULL,
+    refresh_token       TEXT,
+    expires_at          TIMESTAMP NULL,
+    created_at          TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at          TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk__oauth_token__user_id
+        FOREIGN KEY (user_id)
+            REFERENCES users (id)
+            ON DELETE CASCADE,
+    INDEX idx__oauth_token__expires_at (expires_at)
 );
 
 CREATE TABLE product
@@ -39,12 +65,20 @@ CREATE TABLE product
     id          INT PRIMARY KEY AUTO_INCREMENT,
     name        VARCHAR(255)   NOT NULL,
     description TEXT,
+    min_price   DECIMAL(10, 2) NOT NULL DEFAULT 0, -- aggregates over the product's SKUs, maintained on write
+    max_price   DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    total_stock INT            NOT NULL DEFAULT 0,
+    in_stock    BOOLEAN        NOT NULL DEFAULT FALSE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     created_by INT,
     updated_by INT,
     CONSTRAINT fk__product__created_by FOREIGN KEY (created_by) REFERENCES users(id),
-    CONSTRAINT fk__product__updated_by FOREIGN KEY (updated_by) REFERENCES users(id)
+    CONSTRAINT fk__product__updated_by FOREIGN KEY (updated_by) REFERENCES users(id),
+    INDEX idx__product__name_id (name, id),
+    INDEX idx__product__min_price_id (min_price, id),
+    INDEX idx__product__total_stock_id (total_stock, id),
+    INDEX idx__product__in_stock_min_price_id (in_stock, min_price, id)
 );
 
 CREATE TABLE product_variant (
@@ -53,7 +87,9 @@ CREATE TABLE product_variant (
                                  variant_name VARCHAR(100) NOT NULL,
                                  quantity_per_unit INT NOT NULL, -- e.g., 1 for single apple, 12 for a box
                                  unit_type VARCHAR(50) NOT NULL, -- e.g., 'apple', 'box'
-                                 CONSTRAINT fk__product_variant__product_id FOREIGN KEY (product_id) REFERENCES product(id)
+                                 CONSTRAINT fk__product_variant__product_id FOREIGN KEY (product_id) REFERENCES product(id),
+                                 INDEX idx__product_variant__product_id_unit_type_qpu (product_id, unit_type, quantity_per_unit),
+                                 INDEX idx__product_variant__unit_type_qpu (unit_type, quantity_per_unit, product_id)
 );
 
 CREATE TABLE sku (
@@ -62,7 +98,115 @@ CREATE TABLE sku (
 --                       sku_code VARCHAR(50) UNIQUE NOT NULL, -- Unique SKU code for tracking
                      stock_quantity INT NOT NULL DEFAULT 0,
                      price DECIMAL(10, 2) NOT NULL, -- Price per variant
-                     CONSTRAINT fk__sku__variant_id FOREIGN KEY (variant_id) REFERENCES product_variant(id)
+                     CONSTRAINT fk__sku__variant_id FOREIGN KEY (variant_id) REFERENCES product_variant(id),
+                     CONSTRAINT ck__sku__stock_quantity CHECK (stock_quantity >= 0),
+                     INDEX idx__sku__variant_id_price_stock (variant_id, price, stock_quantity),
+                     INDEX idx__sku__price_variant_id (price, variant_id)
+);
+
+-- Pooled id blocks for tables inserted in JDBC batches (IDENTITY would disable Hibernate batching)
+CREATE TABLE id_generator
+(
+    name     VARCHAR(64) PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_generator (name, next_val) VALUES ('orders', 1), ('order_item', 1);
+
+CREATE TABLE orders
+(
+    id             BIGINT PRIMARY KEY,
+    user_id        INT            NOT NULL,
+    order_status   VARCHAR(20)    NOT NULL,
+    payment_status VARCHAR(20)    NOT NULL,
+    total_amount   DECIMAL(12, 2) NOT NULL,
+    recipient_name VARCHAR(255)   NOT NULL,
+    phone_number   VARCHAR(20)    NOT NULL,
+    city_code      VARCHAR(20),
+    district_code  VARCHAR(20),
+    address        VARCHAR(255)   NOT NULL,
+    delivery_notes TEXT,
+    notes          TEXT,
+    created_at     TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT fk__orders__user_id FOREIGN KEY (user_id) REFERENCES users (id),
+    INDEX idx__orders__user_id_id (user_id, id),
+    INDEX idx__orders__order_status_id (order_status, id)
+);
+
+CREATE TABLE order_item
+(
+    id                 BIGINT PRIMARY KEY,
+    order_id           BIGINT         NOT NULL,
+    sku_id             INT            NOT NULL,
+    product_variant_id INT            NOT NULL,
+    product_id         INT            NOT NULL,
+    product_name       VARCHAR(255)   NOT NULL,
+    variant_name       VARCHAR(100)   NOT NULL,
+    quantity           INT            NOT NULL,
+    unit_price         DECIMAL(10, 2) NOT NULL,
+    subtotal           DECIMAL(12, 2) NOT NULL,
+    CONSTRAINT fk__order_item__order_id FOREIGN KEY (order_id) REFERENCES orders (id),
+    INDEX idx__order_item__sku_id (sku_id)
+);
+
+-- Append-only history of every stock change; sku.stock_quantity is the running total
+CREATE TABLE stock_movement
+(
+    id         BIGINT PRIMARY KEY AUTO_INCREMENT,
+    sku_id     INT         NOT NULL,
+    delta      INT         NOT NULL,
+    reason     VARCHAR(20) NOT NULL, -- INITIAL, RESERVE, RELEASE, ADJUST, REMOVED, HOT_FLUSH
+    created_at TIMESTAMP(6) NOT NULL,
+    INDEX idx__stock_movement__sku_id_id (sku_id, id)
+);
+
+-- Per-SKU stock folded from movements up to last_movement_id (see StockLedgerCompactor)
+CREATE TABLE stock_snapshot
+(
+    sku_id           INT          NOT NULL,
+    last_movement_id BIGINT       NOT NULL,
+    quantity         INT          NOT NULL,
+    as_of            TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (sku_id, last_movement_id),
+    INDEX idx__stock_snapshot__sku_id_as_of (sku_id, as_of)
+);
+
+-- Last hot-stock journal sequence applied to sku (see HotStockService)
+CREATE TABLE hot_stock_checkpoint
+(
+    id       INT PRIMARY KEY,
+    last_seq BIGINT NOT NULL
+);
+
+INSERT INTO hot_stock_checkpoint (id, last_seq) VALUES (1, 0);
+
+-- Carts evicted from the in-memory cart store when application.cart.spill.enabled is set
+CREATE TABLE cart_spill
+(
+    user_id    INT PRIMARY KEY,
+    line_items TEXT         NOT NULL, -- skuId:quantity,...
+    updated_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk__cart_spill__user_id FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    INDEX idx__cart_spill__updated_at (updated_at)
+);
+
+-- Admin-defined discounts per SKU, compiled into an in-memory table (see PricingRuleService)
+CREATE TABLE pricing_rule
+(
+    id                    BIGINT PRIMARY KEY AUTO_INCREMENT,
+    sku_id                INT         NOT NULL,
+    type                  VARCHAR(20) NOT NULL,
+    min_quantity          INT,
+    discount_basis_points INT,
+    bundle_price          DECIMAL(10, 2),
+    starts_at             TIMESTAMP(6),
+    ends_at               TIMESTAMP(6),
+    created_at            TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at            TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    created_by            INT,
+    updated_by            INT,
+    CONSTRAINT fk__pricing_rule__sku_id FOREIGN KEY (sku_id) REFERENCES sku (id) ON DELETE CASCADE,
+    INDEX idx__pricing_rule__sku_id (sku_id)
 );
 
 -- Giả sử bạn đã có bảng `users` với user ID là 1 để dùng cho created_by / updated_by
@@ -111,3 +255,22 @@ FROM product;
 INSERT INTO sku (variant_id, stock_quantity, price)
 SELECT id, FLOOR(RAND() * 100) + 10, ROUND(RAND() * 50 + 10, 2)
 FROM product_variant;
+
+-- Số dư đầu kỳ cho sổ biến động tồn kho
+INSERT INTO stock_movement (sku_id, delta, reason, created_at)
+SELECT id, stock_quantity, 'INITIAL', CURRENT_TIMESTAMP(6)
+FROM sku;
+
+-- Tính lại các cột tổng hợp của sản phẩm từ SKU
+UPDATE product p
+    JOIN (SELECT v.product_id,
+                 MIN(s.price)          AS min_price,
+                 MAX(s.price)          AS max_price,
+                 SUM(s.stock_quantity) AS total_stock
+          FROM product_variant v
+                   JOIN sku s ON s.variant_id = v.id
+          GROUP BY v.product_id) a ON a.product_id = p.id
+SET p.min_price   = a.min_price,
+    p.max_price   = a.max_price,
+    p.total_stock = a.total_stock,
+    p.in_stock    = a.total_stock > 0;
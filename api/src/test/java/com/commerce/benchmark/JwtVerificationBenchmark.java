@@ -0,0 +1,62 @@
+package com.commerce.benchmark;
+
+import com.commerce.model.entity.Role;
+import com.commerce.model.entity.User;
+import com.commerce.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Per-request auth cost: the old filter path (three parses, each building a parser and key) vs one verify().
+// Run with:
+// mvn test-compile && java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout -Dmdep.includeScope=test)" com.commerce.benchmark.JwtVerificationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+    private static final String SECRET = "GZBoX3M1ox8lPIQnRxI62garH6X4F4dN";
+
+    private final JwtService jwtService = new JwtService(SECRET, 600, 30);
+    private String token;
+
+    @Setup
+    public void setUp() {
+        User user = User.builder().id(42).username("alice").role(Role.ROLE_USER).build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public int verifyOnce() {
+        return jwtService.verify(token).userId();
+    }
+
+    @Benchmark
+    public int legacyThreeParses() {
+        boolean expired = legacyClaims(token).getExpiration().before(new Date())
+                || legacyClaims(token).getExpiration().before(new Date());
+        return expired ? -1 : Integer.parseInt(legacyClaims(token).get("userId", String.class));
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
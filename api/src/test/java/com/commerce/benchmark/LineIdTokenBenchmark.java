@@ -0,0 +1,85 @@
+package com.commerce.benchmark;
+
+import com.commerce.cache.LineJwksCache;
+import com.commerce.service.LineIdTokenParser;
+import com.commerce.service.LineIdTokenParser.LineIdTokenPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// LINE id_token handling: the old parser (regex split, platform-charset String, new ObjectMapper per call,
+// no checks at all), the old parser plus an HS256 check done the same naive way, and the new parser,
+// which also verifies signature, issuer, audience and expiry. Run with -prof gc to compare allocation.
+// Run with:
+// mvn test-compile && java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout -Dmdep.includeScope=test)" com.commerce.benchmark.LineIdTokenBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineIdTokenBenchmark {
+    private static final String CHANNEL_ID = "1234567890";
+    private static final String CHANNEL_SECRET = "0123456789abcdef0123456789abcdef";
+
+    private LineIdTokenParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        parser = new LineIdTokenParser(objectMapper,
+                new LineJwksCache(objectMapper, () -> "{\"keys\":[]}".getBytes(StandardCharsets.UTF_8), 3600, 60),
+                CHANNEL_ID, CHANNEL_SECRET);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String payload = "{\"iss\":\"https://access.line.me\",\"sub\":\"U1234567890abcdef1234567890abcdef\",\"aud\":\""
+                + CHANNEL_ID + "\",\"exp\":" + (System.currentTimeMillis() / 1000 + 86400) + ",\"iat\":1700000000"
+                + ",\"nonce\":\"0987654321fedcba\",\"amr\":[\"pwd\"],\"name\":\"Taro Line\""
+                + ",\"picture\":\"https://profile.line-scdn.net/abcdefghijklmn\",\"email\":\"taro.line@example.com\"}";
+        String signingInput = encoder.encodeToString("{\"typ\":\"JWT\",\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        token = signingInput + "." + encoder.encodeToString(hmac(signingInput.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Benchmark
+    public LineIdTokenPayload parseAndValidate() {
+        return parser.parseIdToken(token);
+    }
+
+    @Benchmark
+    public LineIdTokenPayload legacyParse() throws Exception {
+        String[] parts = token.split("\\.");
+        String payloadJson = new String(Base64.getUrlDecoder().decode(parts[1]));
+        return new ObjectMapper().readValue(payloadJson, LineIdTokenPayload.class);
+    }
+
+    @Benchmark
+    public LineIdTokenPayload legacyParseWithHmac() throws Exception {
+        String[] parts = token.split("\\.");
+        byte[] expected = hmac((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+        if (!MessageDigest.isEqual(expected, Base64.getUrlDecoder().decode(parts[2]))) {
+            throw new IllegalStateException("bad signature");
+        }
+        String payloadJson = new String(Base64.getUrlDecoder().decode(parts[1]));
+        return new ObjectMapper().readValue(payloadJson, LineIdTokenPayload.class);
+    }
+
+    private static byte[] hmac(byte[] input) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(CHANNEL_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return mac.doFinal(input);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LineIdTokenBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.commerce.benchmark;
+
+import com.commerce.pricing.PricingEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Order totals in long cents vs BigDecimal, same tiers and rounding. Add -prof gc to compare allocation. Run with:
+// mvn test-compile && java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout -Dmdep.includeScope=test)" com.commerce.benchmark.PricingBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+    private static final BigDecimal TIER_1 = new BigDecimal("0.0500");
+    private static final BigDecimal TIER_2 = new BigDecimal("0.1250");
+
+    @Param({"20"})
+    private int lines;
+
+    private final PricingEngine engine = new PricingEngine("10:500,50:1250");
+    private long[] cents;
+    private int[] quantities;
+    private BigDecimal[] prices;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        cents = new long[lines];
+        quantities = new int[lines];
+        prices = new BigDecimal[lines];
+        for (int i = 0; i < lines; i++) {
+            cents[i] = random.nextInt(1_000_000);
+            quantities[i] = 1 + random.nextInt(100);
+            prices[i] = BigDecimal.valueOf(cents[i], 2);
+        }
+    }
+
+    @Benchmark
+    public long cents() {
+        return engine.total(cents, quantities, lines);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            BigDecimal gross = prices[i].multiply(BigDecimal.valueOf(quantities[i]));
+            BigDecimal rate = quantities[i] >= 50 ? TIER_2 : quantities[i] >= 10 ? TIER_1 : BigDecimal.ZERO;
+            total = total.add(gross.subtract(gross.multiply(rate).setScale(2, RoundingMode.HALF_UP)));
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PricingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
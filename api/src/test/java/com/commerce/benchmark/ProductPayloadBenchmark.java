@@ -0,0 +1,50 @@
+package com.commerce.benchmark;
+
+import com.commerce.model.response.ProductResponse;
+import com.commerce.model.response.ProductResponseFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Full vs compact product list serialization. Run with:
+// mvn test-compile && java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout -Dmdep.includeScope=test)" com.commerce.benchmark.ProductPayloadBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductPayloadBenchmark {
+    @Param({"4"})
+    private int variantsPerProduct;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private List<ProductResponse> catalog;
+
+    @Setup
+    public void setUp() throws Exception {
+        catalog = ProductResponseFixtures.catalog(50, variantsPerProduct);
+        int full = objectMapper.writeValueAsBytes(catalog).length;
+        int compact = objectMapper.writeValueAsBytes(catalog.stream().map(ProductResponse::toCompact).toList()).length;
+        System.out.printf("%nfull=%d bytes, compact=%d bytes%n", full, compact);
+    }
+
+    @Benchmark
+    public byte[] full() throws Exception {
+        return objectMapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] compact() throws Exception {
+        return objectMapper.writeValueAsBytes(catalog.stream().map(ProductResponse::toCompact).toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProductPayloadBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,50 @@
+package com.commerce.cache;
+
+import com.commerce.model.response.ProductResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductCacheTest {
+    private final ProductCache cache = new ProductCache(true, 1000, 1000, 600);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadRacingAnInvalidationIsNotKept() {
+        List<ProductResponse> first = cache.getAll(List.of(1), ids -> {
+            ProductResponse loaded = load(1);
+            // An update commits while this load is still running.
+            cache.invalidateProduct(1);
+            return Map.of(1, loaded);
+        });
+        ProductResponse second = cache.get(1, this::load);
+        ProductResponse third = cache.get(1, this::load);
+
+        assertEquals("v1", first.getFirst().getName());
+        assertEquals("v2", second.getName());
+        assertEquals("v2", third.getName());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void queryLoadedBeforeAnInvalidationIsNotKept() {
+        cache.getList("q", () -> {
+            List<ProductResponse> loaded = List.of(load(1));
+            cache.invalidateQueries();
+            return loaded;
+        }, ids -> Map.of());
+        cache.getList("q", () -> List.of(load(1)), ids -> Map.of());
+
+        assertEquals(2, loads.get());
+    }
+
+    private ProductResponse load(int id) {
+        ProductResponse product = ProductResponse.builder().id(id).name("v" + loads.incrementAndGet()).build();
+        product.setCacheVersion(cache.version());
+        return product;
+    }
+}
@@ -0,0 +1,96 @@
+package com.commerce.config;
+
+import com.commerce.cache.ProductCache;
+import com.commerce.cache.ProductJsonCache;
+import com.commerce.model.response.AuditResponse;
+import com.commerce.model.response.FacetCount;
+import com.commerce.model.response.PageInfo;
+import com.commerce.model.response.PaginationResult;
+import com.commerce.model.response.ProductResponse;
+import com.commerce.model.response.ProductVariantResponse;
+import com.commerce.model.response.SkuResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ProductJsonHttpMessageConverterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void writesSameJsonAsJackson() throws Exception {
+        var converter = new ProductJsonHttpMessageConverter(new ProductJsonCache(productCache(), true, 1 << 20, 600), objectMapper);
+        var page = new PaginationResult<>(List.of(product(1), product(2)), new PageInfo("abc", 2L, 20),
+                Map.of("unitType", List.of(new FacetCount("kg", 2))));
+        var type = new ParameterizedTypeReference<PaginationResult<ProductResponse>>() {}.getType();
+
+        for (int i = 0; i < 2; i++) {
+            var output = new MockHttpOutputMessage();
+            converter.write(page, type, MediaType.APPLICATION_JSON, output);
+            assertEquals(objectMapper.writeValueAsString(page), output.getBodyAsString());
+        }
+    }
+
+    @Test
+    void neverCachesJsonOfAResponseLoadedBeforeAnInvalidation() throws Exception {
+        var productCache = productCache();
+        var cache = new ProductJsonCache(productCache, true, 1 << 20, 600);
+        var converter = new ProductJsonHttpMessageConverter(cache, objectMapper);
+        ProductResponse stale = product(1);
+        stale.setCacheVersion(productCache.version());
+        productCache.invalidateProduct(1);
+        cache.invalidate(1);
+        ProductResponse fresh = product(1);
+        fresh.setName("Táo mới");
+        fresh.setCacheVersion(productCache.version());
+
+        converter.write(stale, ProductResponse.class, MediaType.APPLICATION_JSON, new MockHttpOutputMessage());
+        var output = new MockHttpOutputMessage();
+        converter.write(fresh, ProductResponse.class, MediaType.APPLICATION_JSON, output);
+
+        assertEquals(objectMapper.writeValueAsString(fresh), output.getBodyAsString());
+    }
+
+    @Test
+    void defersToJacksonWhenDisabled() {
+        var converter = new ProductJsonHttpMessageConverter(new ProductJsonCache(productCache(), false, 1 << 20, 600), objectMapper);
+        var type = new ParameterizedTypeReference<List<ProductResponse>>() {}.getType();
+
+        assertFalse(converter.canWrite(type, List.class, MediaType.APPLICATION_JSON));
+    }
+
+    private static ProductCache productCache() {
+        return new ProductCache(true, 1000, 1000, 600);
+    }
+
+    private static ProductResponse product(int id) {
+        var audit = AuditResponse.builder().createdAt(Instant.parse("2024-01-01T00:00:00Z")).build();
+        var brief = ProductResponse.builder().id(id).name("Táo " + id).description("Táo đỏ").audit(audit).build();
+        var variant = ProductVariantResponse.builder()
+                .id(id * 10)
+                .variantName("Gói")
+                .quantityPerUnit(1)
+                .unitType("kg")
+                .sku(SkuResponse.builder().id(id * 100).stockQuantity(5).price(12.5).build())
+                .product(brief)
+                .build();
+        return ProductResponse.builder()
+                .id(id)
+                .name("Táo " + id)
+                .description("Táo đỏ")
+                .variants(List.of(variant))
+                .audit(audit)
+                .build();
+    }
+}
@@ -0,0 +1,195 @@
+package com.commerce.filter;
+
+import com.commerce.cache.IdempotencyStore;
+import com.commerce.model.entity.Role;
+import com.commerce.model.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+    private final IdempotencyFilter filter =
+            new IdempotencyFilter(new IdempotencyStore(1 << 20, 60, 5000, 64), new ObjectMapper());
+    private final AtomicInteger executions = new AtomicInteger();
+    private final FilterChain createProduct = (request, response) -> {
+        String body = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        int id = executions.incrementAndGet();
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        response.setContentType("application/json");
+        ((HttpServletResponse) response).setStatus(201);
+        ((HttpServletResponse) response).setHeader("Location", "/api/products/" + id);
+        ((HttpServletResponse) response).addHeader("Set-Cookie", "a=" + id);
+        ((HttpServletResponse) response).addHeader("Set-Cookie", "b=" + id);
+        response.getWriter().write("{\"id\":" + id + ",\"echo\":" + body + "}");
+    };
+
+    @Test
+    void concurrentDuplicatesAndRetriesRunOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> send("key-1", "{\"name\":\"Táo\"}")));
+        }
+        for (Future<MockHttpServletResponse> future : futures) {
+            MockHttpServletResponse response = future.get(10, TimeUnit.SECONDS);
+            assertEquals(201, response.getStatus());
+            assertEquals("{\"id\":1,\"echo\":{\"name\":\"Táo\"}}", response.getContentAsString(StandardCharsets.UTF_8));
+        }
+        executor.shutdown();
+        MockHttpServletResponse retry = send("key-1", "{\"name\":\"Táo\"}");
+
+        assertEquals(1, executions.get());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, retry.getStatus());
+        assertEquals("/api/products/1", retry.getHeader("Location"));
+        assertEquals(List.of("a=1", "b=1"), retry.getHeaders("Set-Cookie"));
+    }
+
+    @Test
+    void rejectsKeyReuseWithDifferentBodyAndRunsRequestsWithoutKey() throws Exception {
+        send("key-2", "{\"name\":\"Táo\"}");
+        MockHttpServletResponse reused = send("key-2", "{\"name\":\"Lê\"}");
+        send(null, "{}");
+        send(null, "{}");
+
+        assertEquals(422, reused.getStatus());
+        assertTrue(reused.getContentAsString().contains("IDEMPOTENCY_KEY_REUSED"));
+        assertEquals(3, executions.get());
+    }
+
+    @Test
+    void keyStaysClaimedUntilWorkLeftInFlightCompletes() throws Exception {
+        CompletableFuture<Map<String, Integer>> placement = new CompletableFuture<>();
+        FilterChain timingOut = (request, response) -> {
+            executions.incrementAndGet();
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((HttpServletRequest) request));
+            try {
+                IdempotencyStore.holdUntilDone(placement, 201);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+            ((HttpServletResponse) response).setStatus(503);
+        };
+
+        MockHttpServletResponse first = send("key-3", "{}", timingOut);
+        placement.complete(Map.of("id", 42));
+        MockHttpServletResponse retry = send("key-3", "{}", timingOut);
+
+        assertEquals(503, first.getStatus());
+        assertEquals(201, retry.getStatus());
+        assertEquals("{\"id\":42}", retry.getContentAsString());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void transientRefusalsAreRunAgainOnRetry() throws Exception {
+        FilterChain busy = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(429);
+        };
+
+        send("key-4", "{}", busy);
+        MockHttpServletResponse retry = send("key-4", "{}", busy);
+
+        assertEquals(429, retry.getStatus());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void anonymousRequestsAreNotDeduplicated() throws Exception {
+        send(null, "key-5", "{}", createProduct);
+        send(null, "key-5", "{}", createProduct);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void refusesBodiesAboveTheLimit() throws Exception {
+        MockHttpServletResponse response = send("key-6", "{\"name\":\"" + "x".repeat(64) + "\"}");
+
+        assertEquals(413, response.getStatus());
+        assertTrue(response.getContentAsString().contains("IDEMPOTENT_REQUEST_TOO_LARGE"));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void bufferedBodyNotifiesReadListenersAtOnce() throws Exception {
+        List<String> events = new ArrayList<>();
+        FilterChain asyncReader = (request, response) -> request.getInputStream().setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() {
+                events.add("available");
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        send("key-7", "{}", asyncReader);
+
+        assertEquals(List.of("available", "done"), events);
+    }
+
+    private MockHttpServletResponse send(String key, String body) throws Exception {
+        return send(key, body, createProduct);
+    }
+
+    private MockHttpServletResponse send(String key, String body, FilterChain chain) throws Exception {
+        return send(User.builder().id(7).username("alice").role(Role.ROLE_USER).build(), key, body, chain);
+    }
+
+    // Signs in as user (anonymous if null) on the calling thread for the duration of the request.
+    private MockHttpServletResponse send(User user, String key, String body, FilterChain chain) throws Exception {
+        if (user != null) {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        }
+        try {
+            return filter(key, body, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private MockHttpServletResponse filter(String key, String body, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/products");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,160 @@
+package com.commerce.filter;
+
+import com.commerce.cache.RevokedTokenStore;
+import com.commerce.cache.TokenEpochCache;
+import com.commerce.cache.UserCache;
+import com.commerce.cache.UsernameIndex;
+import com.commerce.model.entity.Role;
+import com.commerce.model.entity.User;
+import com.commerce.repository.RevokedTokenRepository;
+import com.commerce.service.AuthService;
+import com.commerce.service.JwtService;
+import com.commerce.service.PasswordHasher;
+import com.commerce.service.UserService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({JwtAuthFilter.class, JwtService.class, UserCache.class, TokenEpochCache.class, UserService.class,
+        RevokedTokenStore.class, RevokedTokenRepository.class, UsernameIndex.class, AuthService.class, PasswordHasher.class, BCryptPasswordEncoder.class})
+class JwtAuthFilterTest {
+    @Autowired
+    private JwtAuthFilter jwtAuthFilter;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RevokedTokenStore revokedTokenStore;
+
+    @Autowired
+    private TokenEpochCache tokenEpochCache;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new TransactionTemplate(transactionManager).execute(status -> {
+            User u = User.builder().username("alice").role(Role.ROLE_USER).build();
+            entityManager.persist(u);
+            return u;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM revoked_token");
+    }
+
+    @Test
+    void buildsPrincipalFromClaimsWithoutQueries() throws Exception {
+        String token = jwtService.generateToken(user);
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Authentication authentication = authenticate(token);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        User principal = (User) authentication.getPrincipal();
+        assertEquals(user.getId(), principal.getId());
+        assertEquals("alice", principal.getUsername());
+        assertEquals(Role.ROLE_USER, principal.getRole());
+    }
+
+    @Test
+    void refreshTokenIsNotAnAccessToken() throws Exception {
+        assertNull(authenticate(jwtService.generateRefreshToken(user)));
+    }
+
+    @Test
+    void roleChangeRevokesEarlierTokens() throws Exception {
+        String oldToken = jwtService.generateToken(user);
+
+        userService.changeRole(user.getId(), Role.ROLE_ADMIN);
+        User reloaded = entityManager.find(User.class, user.getId());
+        String newToken = jwtService.generateToken(reloaded);
+
+        assertNull(authenticate(oldToken));
+        assertEquals(Role.ROLE_ADMIN, ((User) authenticate(newToken).getPrincipal()).getRole());
+    }
+
+    @Test
+    void roleChangeOnAnotherInstanceReachesTheCachedUser() throws Exception {
+        assertEquals(Role.ROLE_USER, userCache.get(user.getId()).orElseThrow().getRole());
+        jdbcTemplate.update("UPDATE users SET role = 'ROLE_ADMIN', token_epoch = token_epoch + 1 WHERE id = ?", user.getId());
+
+        tokenEpochCache.reload();
+
+        // What /auth/refresh-token issues the next access token from.
+        User refreshed = userCache.get(user.getId()).orElseThrow();
+        assertEquals(Role.ROLE_ADMIN, refreshed.getRole());
+        assertEquals(Role.ROLE_ADMIN, ((User) authenticate(jwtService.generateToken(refreshed)).getPrincipal()).getRole());
+    }
+
+    @Test
+    void logoutRevokesOnlyThatAccessToken() throws Exception {
+        String loggedOut = jwtService.generateToken(user);
+        String other = jwtService.generateToken(user);
+
+        authService.revokeAccessToken(loggedOut);
+
+        assertNull(authenticate(loggedOut));
+        assertNotNull(authenticate(other));
+        revokedTokenStore.rebuild();
+        assertNull(authenticate(loggedOut));
+        assertEquals(1, revokedTokenStore.size());
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
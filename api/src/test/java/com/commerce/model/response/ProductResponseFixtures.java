@@ -0,0 +1,51 @@
+package com.commerce.model.response;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductResponseFixtures {
+    private static final String DESCRIPTION = "Táo đỏ tươi ngon từ Đà Lạt, được tuyển chọn kỹ càng, giòn ngọt và "
+            + "mọng nước. Bảo quản ngăn mát tủ lạnh để giữ được hương vị tốt nhất trong vòng hai tuần. ";
+
+    public static List<ProductResponse> catalog(int products, int variantsPerProduct) {
+        List<ProductResponse> result = new ArrayList<>(products);
+        for (int i = 1; i <= products; i++) {
+            result.add(product(i, variantsPerProduct));
+        }
+        return result;
+    }
+
+    public static ProductResponse product(int id, int variants) {
+        var audit = AuditResponse.builder()
+                .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .updatedAt(Instant.parse("2024-02-01T00:00:00Z"))
+                .createdBy(1)
+                .updatedBy(1)
+                .build();
+        var brief = ProductResponse.builder()
+                .id(id)
+                .name("Táo đỏ " + id)
+                .description(DESCRIPTION.repeat(3))
+                .audit(audit)
+                .build();
+        List<ProductVariantResponse> variantResponses = new ArrayList<>(variants);
+        for (int j = 1; j <= variants; j++) {
+            variantResponses.add(ProductVariantResponse.builder()
+                    .id(id * 100 + j)
+                    .variantName("Hộp " + j * 6 + " quả")
+                    .quantityPerUnit(j * 6)
+                    .unitType("box")
+                    .sku(SkuResponse.builder().id(id * 100 + j).stockQuantity(40).price(12.5 * j).build())
+                    .product(brief)
+                    .build());
+        }
+        return ProductResponse.builder()
+                .id(id)
+                .name(brief.getName())
+                .description(brief.getDescription())
+                .variants(variantResponses)
+                .audit(audit)
+                .build();
+    }
+}
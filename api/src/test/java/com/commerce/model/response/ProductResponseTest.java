@@ -0,0 +1,33 @@
+package com.commerce.model.response;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductResponseTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void compactViewDropsParentFromVariants() throws Exception {
+        JsonNode json = objectMapper.valueToTree(ProductResponseFixtures.product(1, 3).toCompact());
+
+        for (JsonNode variant : json.get("variants")) {
+            assertFalse(variant.has("product"));
+            assertTrue(variant.has("sku"));
+        }
+    }
+
+    @Test
+    void compactViewIsSmallerThanFullView() throws Exception {
+        List<ProductResponse> catalog = ProductResponseFixtures.catalog(50, 4);
+        int full = objectMapper.writeValueAsBytes(catalog).length;
+        int compact = objectMapper.writeValueAsBytes(catalog.stream().map(ProductResponse::toCompact).toList()).length;
+
+        assertTrue(compact * 3 < full, "compact=" + compact + " full=" + full);
+    }
+}
@@ -0,0 +1,79 @@
+package com.commerce.pricing;
+
+import com.commerce.util.MoneyUtil;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingEngineTest {
+    private final PricingEngine engine = new PricingEngine("10:500,50:1250");
+
+    @Test
+    void centsStayExactWhereDoublesDrift() {
+        double doubleTotal = 0;
+        long[] prices = new long[1000];
+        int[] quantities = new int[1000];
+        for (int i = 0; i < prices.length; i++) {
+            doubleTotal += 0.1 * 3;
+            prices[i] = MoneyUtil.toCents(0.1);
+            quantities[i] = 3;
+        }
+
+        assertNotEquals(300.0, doubleTotal);
+        assertEquals(30_000, engine.total(prices, quantities, prices.length));
+        assertEquals(300.0, MoneyUtil.toAmount(engine.total(prices, quantities, prices.length)));
+    }
+
+    @Test
+    void appliesHighestReachedTierWithHalfUpRounding() {
+        assertEquals(999 * 9, engine.lineSubtotal(999, 9));
+        // 10 x 9.99 = 99.90, 5% off = 4.995 -> 5.00
+        assertEquals(9490, engine.lineSubtotal(999, 10));
+        // 50 x 0.33 = 16.50, 12.5% off = 2.0625 -> 2.06
+        assertEquals(1444, engine.lineSubtotal(33, 50));
+        assertEquals(0, engine.lineSubtotal(0, 100));
+    }
+
+    @Test
+    void matchesBigDecimalReference() {
+        Random random = new Random(42);
+        for (int order = 0; order < 10_000; order++) {
+            int lines = 1 + random.nextInt(20);
+            long[] prices = new long[lines];
+            int[] quantities = new int[lines];
+            BigDecimal expected = BigDecimal.ZERO;
+            for (int i = 0; i < lines; i++) {
+                prices[i] = random.nextInt(100_000_000);
+                quantities[i] = 1 + random.nextInt(200);
+                BigDecimal gross = BigDecimal.valueOf(prices[i], 2).multiply(BigDecimal.valueOf(quantities[i]));
+                BigDecimal rate = BigDecimal.valueOf(quantities[i] >= 50 ? 1250 : quantities[i] >= 10 ? 500 : 0, 4);
+                expected = expected.add(gross.subtract(gross.multiply(rate).setScale(2, RoundingMode.HALF_UP)));
+            }
+            assertEquals(MoneyUtil.toCents(expected), engine.total(prices, quantities, lines));
+        }
+    }
+
+    @Test
+    void roundTripsDecimalAmounts() {
+        for (long cents = 0; cents < 1_000_000; cents += 7) {
+            double amount = MoneyUtil.toAmount(cents);
+            assertEquals(cents, MoneyUtil.toCents(amount));
+            assertEquals(BigDecimal.valueOf(cents, 2), BigDecimal.valueOf(amount).setScale(2, RoundingMode.UNNECESSARY));
+        }
+        assertEquals(29, MoneyUtil.toCents(0.29));
+        assertEquals(1235, MoneyUtil.toCents(new BigDecimal("12.345")));
+    }
+
+    @Test
+    void failsOnOverflowAndInvalidTiers() {
+        assertThrows(ArithmeticException.class, () -> engine.lineSubtotal(Long.MAX_VALUE / 2, 3));
+        assertThrows(IllegalArgumentException.class, () -> engine.lineSubtotal(100, -1));
+        assertThrows(IllegalArgumentException.class, () -> QuantityTiers.parse("50:500,10:1000"));
+        assertThrows(IllegalArgumentException.class, () -> QuantityTiers.parse("10:20000"));
+        assertTrue(QuantityTiers.parse(" ").isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package com.commerce.pricing;
+
+import com.commerce.model.entity.PricingRule;
+import com.commerce.model.entity.PricingRuleType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingRuleTableTest {
+    private static final long NOW = Instant.parse("2025-06-01T12:00:00Z").toEpochMilli();
+
+    private final PricingEngine engine = new PricingEngine("10:500");
+
+    @Test
+    void compilesRulesPerSkuAndPricesLinesWithoutStacking() {
+        engine.install(PricingRuleTable.compile(List.of(
+                rule(1, PricingRuleType.TIER, 20, 1000, null, null, null),
+                rule(1, PricingRuleType.TIER, 20, 800, null, null, null),
+                rule(2, PricingRuleType.BUNDLE, 12, null, "100.00", null, null),
+                rule(2, PricingRuleType.BUNDLE, 6, null, "55.00", null, null),
+                rule(3, PricingRuleType.TIME_WINDOW, null, 2000, null, "2025-06-01T00:00:00Z", "2025-06-02T00:00:00Z"),
+                rule(3, PricingRuleType.TIME_WINDOW, null, 5000, null, "2025-05-01T00:00:00Z", "2025-05-02T00:00:00Z"),
+                rule(3, PricingRuleType.TIME_WINDOW, null, 3000, null, "2025-06-01T12:00:00Z", "2025-06-03T00:00:00Z")
+        ), NOW));
+        PricingRuleTable table = engine.rules();
+
+        assertEquals(3, table.size());
+        assertTrue(table.indexOf(4) < 0);
+        // SKU tiers replace the default ones and duplicate thresholds keep the larger discount.
+        assertEquals(10 * 1000, engine.lineSubtotal(1, 1000, 10, NOW));
+        assertEquals(18_000, engine.lineSubtotal(1, 1000, 20, NOW));
+        // 12 for 100.00 beats 6 for 55.00; 13 units = one bundle + one unit, cheaper than 5% off 130.00.
+        assertEquals(12, table.bundleQuantity(table.indexOf(2)));
+        assertEquals(10_000 + 1000, engine.lineSubtotal(2, 1000, 13, NOW));
+        assertEquals(5 * 1000, engine.lineSubtotal(2, 1000, 5, NOW));
+        // Best open window wins; the ended one is dropped at compile time and the default tier doesn't stack.
+        assertEquals(700, engine.lineSubtotal(3, 100, 10, NOW));
+        assertEquals(800, engine.lineSubtotal(3, 100, 10, NOW - 1));
+        assertEquals(950, engine.lineSubtotal(3, 100, 10, Instant.parse("2025-06-04T00:00:00Z").toEpochMilli()));
+        // No rules: default tiers.
+        assertEquals(950, engine.lineSubtotal(4, 100, 10, NOW));
+    }
+
+    @Test
+    void installReplacesTheWholeTable() {
+        engine.install(PricingRuleTable.compile(List.of(rule(1, PricingRuleType.TIER, 2, 5000, null, null, null)), NOW));
+        assertEquals(100, engine.lineSubtotal(1, 100, 2, NOW));
+
+        engine.install(PricingRuleTable.EMPTY);
+        assertEquals(200, engine.lineSubtotal(1, 100, 2, NOW));
+    }
+
+    private static PricingRule rule(int skuId, PricingRuleType type, Integer minQuantity, Integer basisPoints,
+                                    String bundlePrice, String startsAt, String endsAt) {
+        return PricingRule.builder()
+                .skuId(skuId)
+                .type(type)
+                .minQuantity(minQuantity)
+                .discountBasisPoints(basisPoints)
+                .bundlePrice(bundlePrice == null ? null : new BigDecimal(bundlePrice))
+                .startsAt(startsAt == null ? null : Instant.parse(startsAt))
+                .endsAt(endsAt == null ? null : Instant.parse(endsAt))
+                .build();
+    }
+}
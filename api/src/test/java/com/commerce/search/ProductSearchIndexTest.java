@@ -0,0 +1,55 @@
+package com.commerce.search;
+
+import com.commerce.model.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(null);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        index.index(product(1, "Táo đỏ", "Táo đỏ tươi ngon từ Đà Lạt"));
+        index.index(product(2, "Táo xanh", "Táo xanh chua nhẹ, dùng cho salad"));
+        index.index(product(3, "Dâu tây", "Dâu tây Đà Lạt, tươi mới"));
+    }
+
+    @Test
+    void matchesWithoutDiacritics() {
+        assertEquals(List.of(1), index.search("tao do"));
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        index.index(product(4, "Nước ép", "Nước ép từ táo"));
+
+        List<Integer> result = index.search("tao");
+
+        assertEquals(4, result.getLast());
+        assertTrue(result.containsAll(List.of(1, 2)));
+    }
+
+    @Test
+    void matchesTokenPrefixes() {
+        assertEquals(List.of(3, 1), index.search("da la"));
+    }
+
+    @Test
+    void removesDocuments() {
+        index.remove(1);
+
+        assertEquals(List.of(), index.search("do"));
+    }
+
+    private static Product product(int id, String name, String description) {
+        return Product.builder().id(id).name(name).description(description).build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.commerce.service;
+
+import com.commerce.cache.RevokedTokenStore;
+import com.commerce.cache.UsernameIndex;
+import com.commerce.model.entity.User;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import com.commerce.model.request.LoginRequest;
+import com.commerce.model.request.SignUpRequest;
+import com.commerce.repository.RevokedTokenRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "application.security.hashing.threads=2")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AuthService.class, PasswordHasher.class, BCryptPasswordEncoder.class, JwtService.class, RevokedTokenStore.class,
+        RevokedTokenRepository.class, UsernameIndex.class})
+class AuthServiceTest {
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UsernameIndex usernameIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void loginIsOneReadAndSignupRejectsDuplicates() {
+        authService.register(SignUpRequest.builder().username("alice").password("secret").build());
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        User user = authService.login(LoginRequest.builder().username("alice").password("secret").build());
+
+        assertEquals("alice", user.getUsername());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        AppException wrongPassword = assertThrows(AppException.class,
+                () -> authService.login(LoginRequest.builder().username("alice").password("wrong").build()));
+        AppException unknownUser = assertThrows(AppException.class,
+                () -> authService.login(LoginRequest.builder().username("bob").password("secret").build()));
+        AppException duplicate = assertThrows(AppException.class,
+                () -> authService.register(SignUpRequest.builder().username("alice").password("other").build()));
+        assertEquals(ErrorCode.INVALID_CREDENTIALS, wrongPassword.getErrorCode());
+        assertEquals(ErrorCode.INVALID_CREDENTIALS, unknownUser.getErrorCode());
+        assertEquals(ErrorCode.USERNAME_ALREADY_EXISTS, duplicate.getErrorCode());
+    }
+
+    @Test
+    void answersFreeUsernamesWithoutQueries() {
+        authService.register(SignUpRequest.builder().username("alice").password("secret").build());
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long queries = usernameIndex.queries();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(authService.isUsernameAvailable("user" + i));
+        }
+        long freeProbeQueries = statistics.getPrepareStatementCount();
+
+        assertTrue(freeProbeQueries <= 5, "queries for free names: " + freeProbeQueries);
+        assertFalse(authService.isUsernameAvailable("alice"));
+        assertEquals(freeProbeQueries + 1, usernameIndex.queries() - queries);
+        usernameIndex.rebuild();
+        assertFalse(authService.isUsernameAvailable("alice"));
+        AppException blank = assertThrows(AppException.class, () -> authService.isUsernameAvailable(" "));
+        assertEquals(ErrorCode.INVALID_USERNAME, blank.getErrorCode());
+    }
+
+    @Test
+    void probesNamesThatDifferOnlyByAccentOrCase() {
+        authService.register(SignUpRequest.builder().username("Đặng Thị Ánh").password("secret").build());
+        long queries = usernameIndex.queries();
+
+        authService.isUsernameAvailable("dang thi anh");
+        usernameIndex.rebuild();
+        authService.isUsernameAvailable("DANG THI ANH");
+
+        // Both may collide under the database collation, so neither is answered from the filter alone.
+        assertEquals(2, usernameIndex.queries() - queries);
+    }
+
+    @Test
+    void rejectsHashingBeyondQueueCapacity() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if (!"dummy-password".contentEquals(rawPassword)) {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        PasswordHasher hasher = new PasswordHasher(blocking, 1, 1);
+        try {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("a"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.encode("b"));
+            while (hasher.queued() == 0) {
+                Thread.onSpinWait();
+            }
+
+            AppException busy = assertThrows(AppException.class, () -> hasher.encode("c"));
+
+            assertEquals(ErrorCode.AUTH_BUSY, busy.getErrorCode());
+            release.countDown();
+            assertEquals("a", running.get(5, TimeUnit.SECONDS));
+            assertEquals("b", queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            hasher.shutdown();
+        }
+    }
+}
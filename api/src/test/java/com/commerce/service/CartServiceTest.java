@@ -0,0 +1,170 @@
+package com.commerce.service;
+
+import com.commerce.cache.CartStore;
+import com.commerce.cache.ProductCache;
+import com.commerce.cache.ProductJsonCache;
+import com.commerce.model.entity.Product;
+import com.commerce.model.entity.ProductVariant;
+import com.commerce.model.entity.Sku;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import com.commerce.model.request.CartItemRequest;
+import com.commerce.model.request.CheckoutRequest;
+import com.commerce.model.response.CartResponse;
+import com.commerce.model.response.OrderResponse;
+import com.commerce.pricing.PricingEngine;
+import com.commerce.repository.CartSpillRepository;
+import com.commerce.repository.SkuStockRepository;
+import com.commerce.repository.StockLedgerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"application.cart.lock-stripes=4",
+        "application.order.commit.max-wait-ms=1"})
+@Import({CartService.class, CartStore.class, CartSpillRepository.class, OrderService.class, OrderCommitter.class,
+        StockService.class, HotStockService.class, StockMovementRecorder.class, SkuStockRepository.class,
+        StockLedgerRepository.class, ProductCache.class, ProductJsonCache.class, PricingEngine.class})
+class CartServiceTest {
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Integer> skuIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Product product = new TransactionTemplate(transactionManager).execute(status -> {
+            Product p = Product.builder().name("Táo đỏ").variants(new ArrayList<>()).build();
+            for (int i = 0; i < 2; i++) {
+                ProductVariant variant = ProductVariant.builder()
+                        .product(p)
+                        .variantName("Gói " + i)
+                        .quantityPerUnit(1)
+                        .unitType("kg")
+                        .build();
+                variant.setSku(Sku.builder().productVariant(variant).price(12.5 + i).stockQuantity(10).build());
+                p.getVariants().add(variant);
+            }
+            p.refreshAggregates();
+            entityManager.persist(p);
+            return p;
+        });
+        product.getVariants().forEach(variant -> skuIds.add(variant.getSku().getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM stock_movement");
+        jdbcTemplate.update("DELETE FROM order_item");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM sku");
+        jdbcTemplate.update("DELETE FROM product_variant");
+        jdbcTemplate.update("DELETE FROM product");
+    }
+
+    @Test
+    void concurrentAddsToOneCartAreNotLost() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int skuId = skuIds.get(i % 2);
+            futures.add(executor.submit(() -> cartService.add(1, new CartItemRequest(skuId, 1))));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        CartResponse cart = cartService.get(1);
+        assertEquals(2, cart.getLines().size());
+        assertEquals(500, cart.getLines().get(0).getQuantity());
+        assertEquals(500, cart.getLines().get(1).getQuantity());
+    }
+
+    @Test
+    void concurrentCheckoutsOfOneCartPlaceOneOrder() throws Exception {
+        cartService.add(3, new CartItemRequest(skuIds.get(0), 1));
+        CheckoutRequest delivery = new CheckoutRequest("Nguyễn Văn A", "0900000000", null, null, "1 Lê Lợi", null, null);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return cartService.checkout(3, delivery);
+            }));
+        }
+        start.countDown();
+        int placed = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                placed++;
+            } catch (ExecutionException e) {
+                ErrorCode code = ((AppException) e.getCause()).getErrorCode();
+                assertTrue(code == ErrorCode.CHECKOUT_IN_PROGRESS || code == ErrorCode.INVALID_CART, code.name());
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, placed);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class));
+        assertEquals(9, jdbcTemplate.queryForObject("SELECT stock_quantity FROM sku WHERE id = ?", Integer.class, skuIds.get(0)));
+    }
+
+    @Test
+    void validatesAndChecksOutWithOneSkuLookup() {
+        cartService.add(2, new CartItemRequest(skuIds.get(0), 4));
+        cartService.add(2, new CartItemRequest(skuIds.get(1), 11));
+        cartService.add(2, new CartItemRequest(-1, 1));
+
+        CartResponse validation = cartService.validate(2);
+        assertFalse(validation.getValid());
+        assertNull(validation.getLines().get(0).getProblem());
+        assertEquals(50.0, validation.getLines().get(0).getSubtotal());
+        assertEquals(ErrorCode.INSUFFICIENT_STOCK.name(), validation.getLines().get(1).getProblem());
+        assertEquals(ErrorCode.SKU_NOT_FOUND.name(), validation.getLines().get(2).getProblem());
+        assertEquals(50.0 + 11 * 13.5, validation.getTotalAmount());
+
+        CheckoutRequest delivery = new CheckoutRequest("Nguyễn Văn A", "0900000000", null, null, "1 Lê Lợi", null, null);
+        AppException rejected = assertThrows(AppException.class, () -> cartService.checkout(2, delivery));
+        assertEquals(ErrorCode.INSUFFICIENT_STOCK, rejected.getErrorCode());
+
+        cartService.set(2, new CartItemRequest(skuIds.get(1), 0));
+        cartService.set(2, new CartItemRequest(-1, 0));
+        OrderResponse order = cartService.checkout(2, delivery);
+        assertEquals(50.0, order.getTotalAmount());
+        assertTrue(cartService.get(2).getLines().isEmpty());
+    }
+}
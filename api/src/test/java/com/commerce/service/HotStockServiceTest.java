@@ -0,0 +1,187 @@
+package com.commerce.service;
+
+import com.commerce.cache.ProductCache;
+import com.commerce.cache.ProductJsonCache;
+import com.commerce.model.entity.Product;
+import com.commerce.model.entity.ProductVariant;
+import com.commerce.model.entity.Sku;
+import com.commerce.model.exception.AppException;
+import com.commerce.repository.SkuStockRepository;
+import com.commerce.repository.StockLedgerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SkuStockRepository.class, StockMovementRecorder.class, StockLedgerRepository.class, ProductCache.class,
+        ProductJsonCache.class})
+class HotStockServiceTest {
+    private static final int REQUESTS = 400;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private SkuStockRepository skuStockRepository;
+
+    @Autowired
+    private StockMovementRecorder stockMovementRecorder;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductJsonCache productJsonCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path journalDirectory;
+
+    private int skuId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("CREATE TABLE IF NOT EXISTS hot_stock_checkpoint (id INT PRIMARY KEY, last_seq BIGINT NOT NULL)");
+        Product product = new TransactionTemplate(transactionManager).execute(status -> {
+            Product p = Product.builder().name("Flash sale").variants(new ArrayList<>()).build();
+            ProductVariant variant = ProductVariant.builder()
+                    .product(p)
+                    .variantName("Box")
+                    .quantityPerUnit(1)
+                    .unitType("box")
+                    .build();
+            variant.setSku(Sku.builder().productVariant(variant).price(10.0).stockQuantity(100).build());
+            p.getVariants().add(variant);
+            p.refreshAggregates();
+            entityManager.persist(p);
+            return p;
+        });
+        skuId = product.getVariants().getFirst().getSku().getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM hot_stock_checkpoint");
+        jdbcTemplate.update("DELETE FROM stock_movement");
+        jdbcTemplate.update("DELETE FROM sku");
+        jdbcTemplate.update("DELETE FROM product_variant");
+        jdbcTemplate.update("DELETE FROM product");
+    }
+
+    @Test
+    void parallelReservationsNeverOversellAndFlushToSku() throws Exception {
+        HotStockService hotStock = start(50);
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    hotStock.reserve(line(1));
+                    reserved.incrementAndGet();
+                } catch (AppException ignored) {
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        hotStock.shutdown();
+
+        assertEquals(100, reserved.get());
+        assertEquals(0, hotStock.available(skuId).orElseThrow());
+        assertEquals(0, stock());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT total_stock FROM product", Integer.class));
+    }
+
+    @Test
+    void unflushedDeltasAreReplayedAfterCrash() throws Exception {
+        HotStockService crashed = start(Integer.MAX_VALUE);
+        crashed.reserve(line(3));
+        crashed.flush();
+        crashed.reserve(line(5));
+        crashed.release(line(1));
+        assertEquals(97, stock());
+
+        // No shutdown: the last two changes exist only in the journal.
+        HotStockService restarted = start(Integer.MAX_VALUE);
+
+        assertEquals(93, stock());
+        assertEquals(93, restarted.available(skuId).orElseThrow());
+        restarted.reserve(line(3));
+        restarted.shutdown();
+        assertEquals(90, stock());
+        assertEquals(-10, jdbcTemplate.queryForObject(
+                "SELECT SUM(delta) FROM stock_movement WHERE reason = 'HOT_FLUSH'", Integer.class));
+    }
+
+    @Test
+    void deltaBeyondStockIsClampedInsteadOfRetried() throws Exception {
+        HotStockService hotStock = start(Integer.MAX_VALUE);
+        hotStock.reserve(line(30));
+        // Stock lowered behind hot mode's back, so the flushed -30 no longer fits.
+        jdbcTemplate.update("UPDATE sku SET stock_quantity = 10 WHERE id = ?", skuId);
+        jdbcTemplate.update("UPDATE product SET total_stock = 10");
+
+        hotStock.flush();
+
+        assertEquals(0, stock());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT total_stock FROM product", Integer.class));
+        assertEquals(-10, jdbcTemplate.queryForObject("SELECT delta FROM stock_movement", Integer.class));
+        try (var segments = Files.list(journalDirectory)) {
+            assertEquals(1, segments.count());
+        }
+        hotStock.shutdown();
+        assertEquals(0, stock());
+    }
+
+    private HotStockService start(int flushThreshold) throws Exception {
+        HotStockService hotStock = new HotStockService(skuStockRepository, stockMovementRecorder, productCache,
+                productJsonCache, transactionManager, true, List.of(skuId), flushThreshold, journalDirectory.toString(), true);
+        hotStock.init();
+        return hotStock;
+    }
+
+    private SortedMap<Integer, Integer> line(int quantity) {
+        return new TreeMap<>(Map.of(skuId, quantity));
+    }
+
+    private int stock() {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM sku WHERE id = ?", Integer.class, skuId);
+    }
+}
@@ -0,0 +1,49 @@
+package com.commerce.service;
+
+import com.commerce.model.entity.Role;
+import com.commerce.model.entity.User;
+import com.commerce.service.JwtService.TokenType;
+import com.commerce.service.JwtService.VerifiedToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+    private static final String SECRET = "GZBoX3M1ox8lPIQnRxI62garH6X4F4dN";
+
+    private final User user = User.builder().id(42).username("alice").role(Role.ROLE_ADMIN).build();
+
+    @Test
+    void verifiesOnceAndReturnsTypedClaims() {
+        JwtService jwtService = new JwtService(SECRET, 600, 30);
+        String token = jwtService.generateToken(user);
+
+        VerifiedToken verified = jwtService.verify(token);
+
+        assertEquals(42, verified.userId());
+        assertEquals("alice", verified.subject());
+        assertEquals(Role.ROLE_ADMIN, verified.role());
+        assertEquals(TokenType.ACCESS, verified.type());
+        assertTrue(verified.expiresAt().isAfter(Instant.now()));
+        VerifiedToken refresh = jwtService.verify(jwtService.generateRefreshToken(user));
+        assertNull(refresh.role());
+        assertEquals(TokenType.REFRESH, refresh.type());
+        assertFalse(refresh.isAccessToken());
+    }
+
+    @Test
+    void rejectsTamperedAndExpiredTokens() {
+        JwtService jwtService = new JwtService(SECRET, 600, 30);
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String expired = new JwtService(SECRET, -1, 30).generateToken(user);
+
+        assertThrows(JwtException.class, () -> jwtService.verify(tampered));
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(expired));
+        assertThrows(JwtException.class, () -> new JwtService(SECRET.toLowerCase(), 600, 30).verify(token));
+    }
+}
@@ -0,0 +1,148 @@
+package com.commerce.service;
+
+import com.commerce.cache.LineJwksCache;
+import com.commerce.model.exception.AppException;
+import com.commerce.service.LineIdTokenParser.LineIdTokenPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineIdTokenParserTest {
+    private static final String CHANNEL_ID = "1234567890";
+    private static final String CHANNEL_SECRET = "channel-secret";
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void acceptsValidHs256TokenAndRejectsTamperedOnes() throws Exception {
+        LineIdTokenParser parser = new LineIdTokenParser(objectMapper,
+                new LineJwksCache(objectMapper, () -> "{\"keys\":[]}".getBytes(), 3600, 60), CHANNEL_ID, CHANNEL_SECRET);
+        long exp = System.currentTimeMillis() / 1000 + 600;
+        String token = hs256(payload(CHANNEL_ID, exp, "n-1"));
+
+        LineIdTokenPayload payload = parser.parseIdToken(token, "n-1");
+
+        assertEquals("U123", payload.getSub());
+        assertEquals("Alice", payload.getName());
+        String tampered = hs256Unsigned(payload(CHANNEL_ID, exp, "n-1").replace("U123", "U999"))
+                + token.substring(token.lastIndexOf('.'));
+        assertThrows(AppException.class, () -> parser.parseIdToken(tampered));
+        assertThrows(AppException.class, () -> parser.parseIdToken(hs256(payload("other-channel", exp, null))));
+        assertThrows(AppException.class, () -> parser.parseIdToken(hs256(payload(CHANNEL_ID, exp - 3600, null))));
+        assertThrows(AppException.class, () -> parser.parseIdToken(token, "n-2"));
+        assertThrows(AppException.class, () -> parser.parseIdToken("not-a-token"));
+    }
+
+    @Test
+    void verifiesEs256AgainstCachedKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        AtomicInteger fetches = new AtomicInteger();
+        LineJwksCache jwksCache = new LineJwksCache(objectMapper, () -> {
+            fetches.incrementAndGet();
+            return jwks("kid-1", (ECPublicKey) keyPair.getPublic()).getBytes(StandardCharsets.UTF_8);
+        }, 3600, 60);
+        LineIdTokenParser parser = new LineIdTokenParser(objectMapper, jwksCache, CHANNEL_ID, "");
+        String payload = payload(CHANNEL_ID, System.currentTimeMillis() / 1000 + 600, null);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("U123", parser.parseIdToken(es256(payload, "kid-1", keyPair)).getSub());
+        }
+        AppException unknownKid = assertThrows(AppException.class,
+                () -> parser.parseIdToken(es256(payload, "kid-2", keyPair)));
+
+        assertEquals("unknown signing key", unknownKid.getMessageParams().get("reason"));
+        assertEquals(1, fetches.get());
+        assertThrows(AppException.class, () -> parser.parseIdToken(hs256(payload)));
+    }
+
+    @Test
+    void slowKeyFetchDoesNotHoldUpVerification() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        byte[] document = jwks("kid-1", (ECPublicKey) keyPair.getPublic()).getBytes(StandardCharsets.UTF_8);
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch unblock = new CountDownLatch(1);
+        // Every key is expired at once; the second fetch hangs until released.
+        LineJwksCache jwksCache = new LineJwksCache(objectMapper, () -> {
+            if (fetches.incrementAndGet() > 1) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return document;
+        }, 0, 0, 100);
+
+        assertNotNull(jwksCache.get("kid-1"));
+        long start = System.nanoTime();
+        assertNotNull(jwksCache.get("kid-1"));
+        assertNull(jwksCache.get("kid-2"));
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        unblock.countDown();
+
+        assertTrue(millis < 2000, millis + " ms");
+        assertEquals(2, fetches.get());
+    }
+
+    private static String payload(String audience, long exp, String nonce) {
+        return "{\"iss\":\"https://access.line.me\",\"sub\":\"U123\",\"aud\":\"" + audience + "\",\"exp\":" + exp
+                + ",\"iat\":" + (exp - 600) + (nonce != null ? ",\"nonce\":\"" + nonce + "\"" : "")
+                + ",\"name\":\"Alice\",\"amr\":[\"pwd\"]}";
+    }
+
+    private static String hs256Unsigned(String payload) {
+        return encode("{\"typ\":\"JWT\",\"alg\":\"HS256\"}") + "." + encode(payload);
+    }
+
+    private static String hs256(String payload) throws Exception {
+        String signingInput = hs256Unsigned(payload);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(CHANNEL_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return signingInput + "." + BASE64.encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static String es256(String payload, String kid, KeyPair keyPair) throws Exception {
+        String signingInput = encode("{\"typ\":\"JWT\",\"alg\":\"ES256\",\"kid\":\"" + kid + "\"}") + "." + encode(payload);
+        Signature signer = Signature.getInstance("SHA256withECDSAinP1363Format");
+        signer.initSign(keyPair.getPrivate());
+        signer.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + BASE64.encodeToString(signer.sign());
+    }
+
+    private static String jwks(String kid, ECPublicKey key) {
+        return "{\"keys\":[{\"kty\":\"EC\",\"alg\":\"ES256\",\"use\":\"sig\",\"crv\":\"P-256\",\"kid\":\"" + kid
+                + "\",\"x\":\"" + coordinate(key.getW().getAffineX()) + "\",\"y\":\"" + coordinate(key.getW().getAffineY()) + "\"}]}";
+    }
+
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return BASE64.encodeToString(fixed);
+    }
+
+    private static String encode(String json) {
+        return BASE64.encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
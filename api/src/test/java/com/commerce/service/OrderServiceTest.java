@@ -0,0 +1,175 @@
+package com.commerce.service;
+
+import com.commerce.cache.ProductCache;
+import com.commerce.cache.ProductJsonCache;
+import com.commerce.model.entity.Product;
+import com.commerce.model.entity.ProductVariant;
+import com.commerce.model.entity.Sku;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import com.commerce.model.request.PlaceOrderItemRequest;
+import com.commerce.model.request.PlaceOrderRequest;
+import com.commerce.model.response.OrderResponse;
+import com.commerce.pricing.PricingEngine;
+import com.commerce.repository.SkuStockRepository;
+import com.commerce.repository.StockLedgerRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "application.order.commit.max-wait-ms=20")
+@Import({OrderService.class, OrderCommitter.class, StockService.class, HotStockService.class, StockMovementRecorder.class,
+        SkuStockRepository.class, StockLedgerRepository.class, ProductCache.class, ProductJsonCache.class, PricingEngine.class})
+class OrderServiceTest {
+    private static final int ORDERS = 200;
+    private static final int STOCK = 150;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int skuId;
+
+    @BeforeEach
+    void setUp() {
+        Product product = new TransactionTemplate(transactionManager).execute(status -> {
+            Product p = Product.builder().name("Táo đỏ").variants(new ArrayList<>()).build();
+            ProductVariant variant = ProductVariant.builder()
+                    .product(p)
+                    .variantName("Gói 1kg")
+                    .quantityPerUnit(1)
+                    .unitType("kg")
+                    .build();
+            variant.setSku(Sku.builder().productVariant(variant).price(25.5).stockQuantity(STOCK).build());
+            p.getVariants().add(variant);
+            p.refreshAggregates();
+            entityManager.persist(p);
+            return p;
+        });
+        skuId = product.getVariants().getFirst().getSku().getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM stock_movement");
+        jdbcTemplate.update("DELETE FROM order_item");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM sku");
+        jdbcTemplate.update("DELETE FROM product_variant");
+        jdbcTemplate.update("DELETE FROM product");
+    }
+
+    @Test
+    void concurrentPlacementsShareCommitsWithoutOverselling() throws Exception {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    OrderResponse order = orderService.place(7, request(new PlaceOrderItemRequest(skuId, 1, 25.5)));
+                    assertEquals(25.5, order.getTotalAmount());
+                    placed.incrementAndGet();
+                } catch (AppException e) {
+                    assertEquals(ErrorCode.INSUFFICIENT_STOCK, e.getErrorCode());
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(STOCK, placed.get());
+        assertEquals(ORDERS - STOCK, rejected.get());
+        assertEquals(STOCK, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class));
+        assertEquals(STOCK, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_item", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT stock_quantity FROM sku WHERE id = ?", Integer.class, skuId));
+        assertTrue(statistics.getSuccessfulTransactionCount() < ORDERS / 4,
+                "expected grouped commits, got " + statistics.getSuccessfulTransactionCount());
+    }
+
+    @Test
+    void answersServiceUnavailableWhenTheCommitStalls() {
+        OrderCommitter stalled = new OrderCommitter(null, null, null, null, null, transactionManager, 1, 1) {
+            @Override
+            public CompletableFuture<OrderResponse> submit(int userId, PlaceOrderRequest request) {
+                return new CompletableFuture<>();
+            }
+        };
+        OrderService timingOut = new OrderService(stalled, null, 50);
+
+        AppException timeout = assertThrows(AppException.class,
+                () -> timingOut.place(7, request(new PlaceOrderItemRequest(skuId, 1, null))));
+
+        assertEquals(ErrorCode.ORDER_PLACEMENT_TIMEOUT, timeout.getErrorCode());
+    }
+
+    @Test
+    void rejectsUnknownSkusAndChangedPrices() {
+        AppException unknownSku = assertThrows(AppException.class,
+                () -> orderService.place(7, request(new PlaceOrderItemRequest(-1, 1, null))));
+        AppException priceChanged = assertThrows(AppException.class,
+                () -> orderService.place(7, request(new PlaceOrderItemRequest(skuId, 1, 20.0))));
+        OrderResponse order = orderService.place(7, request(new PlaceOrderItemRequest(skuId, 2, null)));
+
+        assertEquals(ErrorCode.SKU_NOT_FOUND, unknownSku.getErrorCode());
+        assertEquals(ErrorCode.PRICE_CHANGED, priceChanged.getErrorCode());
+        assertEquals(51.0, order.getTotalAmount());
+        assertEquals(new BigDecimal("51.00"),
+                jdbcTemplate.queryForObject("SELECT total_amount FROM orders", BigDecimal.class));
+        assertEquals("Gói 1kg", order.getOrderItems().getFirst().getVariantName());
+        assertEquals(STOCK - 2, jdbcTemplate.queryForObject("SELECT stock_quantity FROM sku WHERE id = ?", Integer.class, skuId));
+    }
+
+    private static PlaceOrderRequest request(PlaceOrderItemRequest item) {
+        return PlaceOrderRequest.builder()
+                .items(List.of(item))
+                .recipientName("Nguyễn Văn A")
+                .phoneNumber("0900000000")
+                .address("1 Lê Lợi")
+                .build();
+    }
+}
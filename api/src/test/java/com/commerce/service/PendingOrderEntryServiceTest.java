@@ -0,0 +1,118 @@
+package com.commerce.service;
+
+import com.commerce.model.entity.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PendingOrderEntryService.class, JacksonAutoConfiguration.class})
+class PendingOrderEntryServiceTest {
+    private static final int ORDERS = 30;
+
+    @Autowired
+    private PendingOrderEntryService pendingOrderEntryService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User user = User.builder().username("user" + i).fullName("User " + i).role(Role.ROLE_USER).build();
+            entityManager.persist(user);
+            users.add(user);
+        }
+        Product product = Product.builder().name("Táo đỏ").variants(new ArrayList<>()).build();
+        for (int j = 0; j < 2; j++) {
+            ProductVariant variant = ProductVariant.builder()
+                    .product(product)
+                    .variantName("Gói " + j)
+                    .quantityPerUnit(1)
+                    .unitType("kg")
+                    .build();
+            variant.setSku(Sku.builder().productVariant(variant).price(10.0 + j).stockQuantity(100).build());
+            product.getVariants().add(variant);
+        }
+        product.refreshAggregates();
+        entityManager.persist(product);
+
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder()
+                    .userId(users.get(i % users.size()).getId())
+                    .orderStatus(i == 0 ? OrderStatus.CANCELLED : OrderStatus.PENDING)
+                    .paymentStatus(PaymentStatus.PENDING)
+                    .totalAmount(BigDecimal.ZERO)
+                    .recipientName("Nguyễn Văn A")
+                    .phoneNumber("0900000000")
+                    .address("1 Lê Lợi")
+                    .createdAt(Instant.now())
+                    .items(new ArrayList<>())
+                    .build();
+            for (ProductVariant variant : product.getVariants()) {
+                order.getItems().add(OrderItem.builder()
+                        .order(order)
+                        .skuId(variant.getSku().getId())
+                        .productVariantId(variant.getId())
+                        .productId(product.getId())
+                        .productName(product.getName())
+                        .variantName(variant.getVariantName())
+                        .quantity(1)
+                        .unitPrice(BigDecimal.valueOf(variant.getSku().getPrice()))
+                        .subtotal(BigDecimal.valueOf(variant.getSku().getPrice()))
+                        .build());
+            }
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void writesEntriesWithEachUserAndSkuOnceUsingThreeQueries() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pendingOrderEntryService.write(0, 5000, out);
+
+        JsonNode body = objectMapper.readTree(out.toByteArray());
+        assertEquals((ORDERS - 1) * 2, body.get("orderEntries").size());
+        assertEquals(3, body.get("users").size());
+        assertEquals(2, body.get("skus").size());
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        JsonNode first = body.get("orderEntries").get(0);
+        ByteArrayOutputStream next = new ByteArrayOutputStream();
+        pendingOrderEntryService.write(first.get("id").asLong(), 1, next);
+        JsonNode page = objectMapper.readTree(next.toByteArray());
+        assertEquals(body.get("orderEntries").get(1), page.get("orderEntries").get(0));
+        assertEquals(1, page.get("users").size());
+    }
+}
@@ -0,0 +1,133 @@
+package com.commerce.service;
+
+import com.commerce.cache.ProductCache;
+import com.commerce.cache.ProductJsonCache;
+import com.commerce.model.entity.Product;
+import com.commerce.model.entity.ProductVariant;
+import com.commerce.model.entity.Sku;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import com.commerce.model.request.ProductPageRequest;
+import com.commerce.model.response.ProductResponse;
+import com.commerce.repository.SkuStockRepository;
+import com.commerce.repository.StockLedgerRepository;
+import com.commerce.search.ProductSearchIndex;
+import com.commerce.util.CursorUtil;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "application.product.cache.enabled=false")
+@Import({ProductService.class, ProductSearchIndex.class, ProductCache.class, ProductJsonCache.class,
+        StockService.class, HotStockService.class, StockMovementRecorder.class,
+        SkuStockRepository.class, StockLedgerRepository.class})
+class ProductServicePaginationTest {
+    private static final double[] PRICES = {12.5, 10.0, 12.5, 10.0, 12.5, 11.0, 10.0};
+    private static final int[] STOCKS = {0, 5, 5, 0, 5, 0, 5};
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Integer> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PRICES.length; i++) {
+            Product product = Product.builder().name("P" + i).variants(new ArrayList<>()).build();
+            ProductVariant variant = ProductVariant.builder()
+                    .product(product)
+                    .variantName("Variant")
+                    .quantityPerUnit(1)
+                    .unitType("kg")
+                    .build();
+            variant.setSku(Sku.builder().productVariant(variant).price(PRICES[i]).stockQuantity(STOCKS[i]).build());
+            product.getVariants().add(variant);
+            product.refreshAggregates();
+            entityManager.persist(product);
+            ids.add(product.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void cursorsWalkEverySortOnceWithTiesBrokenById() {
+        assertEquals(List.of("P1", "P3", "P6", "P5", "P0", "P2", "P4"), walk("price"));
+        assertEquals(List.of("P4", "P2", "P0", "P5", "P6", "P3", "P1"), walk("-price"));
+        assertEquals(List.of("P0", "P3", "P5", "P1", "P2", "P4", "P6"), walk("stock"));
+        assertEquals(List.of("P6", "P4", "P2", "P1", "P5", "P3", "P0"), walk("stock,desc"));
+        assertEquals(List.of("P0", "P1", "P2", "P3", "P4", "P5", "P6"), walk("name"));
+        assertEquals(List.of("P6", "P5", "P4", "P3", "P2", "P1", "P0"), walk("-id"));
+    }
+
+    @Test
+    void priceCursorKeepsTheDecimalValue() {
+        ProductPageRequest request = new ProductPageRequest();
+        request.setSort("price");
+        request.setSize(4);
+
+        String next = productService.page(request).getPageInfo().getNext();
+
+        assertEquals(new CursorUtil.Cursor("11.00", ids.get(5)), CursorUtil.decode(next));
+    }
+
+    @Test
+    void malformedOrTamperedCursorsAreBadRequests() {
+        List<String> cursors = List.of(
+                "not a cursor!",
+                encodeRaw("no separator"),
+                encodeRaw("10.00\nnot-an-id"),
+                CursorUtil.encode("not-a-price", ids.getFirst()),
+                CursorUtil.encode("NaN", ids.getFirst()));
+        for (String cursor : cursors) {
+            ProductPageRequest request = new ProductPageRequest();
+            request.setSort("price");
+            request.setCursor(cursor);
+
+            AppException rejected = assertThrows(AppException.class, () -> productService.page(request), cursor);
+
+            assertEquals(ErrorCode.INVALID_CURSOR, rejected.getErrorCode());
+            assertEquals(HttpStatus.BAD_REQUEST, rejected.getErrorCode().getHttpStatus());
+        }
+    }
+
+    private List<String> walk(String sort) {
+        ProductPageRequest request = new ProductPageRequest();
+        request.setSort(sort);
+        request.setSize(2);
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            request.setCursor(cursor);
+            var page = productService.page(request);
+            page.getData().forEach(product -> names.add(product.getName()));
+            cursor = page.getPageInfo().getNext();
+        } while (cursor != null);
+        return names;
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,222 @@
+package com.commerce.service;
+
+import com.commerce.cache.ProductCache;
+import com.commerce.cache.ProductJsonCache;
+import com.commerce.model.entity.Product;
+import com.commerce.model.entity.ProductVariant;
+import com.commerce.model.entity.Sku;
+import com.commerce.model.request.ProductPageRequest;
+import com.commerce.model.request.ProductView;
+import com.commerce.model.request.UpdateProductRequest;
+import com.commerce.model.request.UpdateProductVariantRequest;
+import com.commerce.model.request.UpdateSkuRequest;
+import com.commerce.model.response.FacetCount;
+import com.commerce.model.response.ProductResponse;
+import com.commerce.repository.SkuStockRepository;
+import com.commerce.repository.StockLedgerRepository;
+import com.commerce.search.ProductSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {"application.product.cache.enabled=false", "application.search.max-bound-ids=5"})
+@Import({ProductService.class, ProductSearchIndex.class, ProductCache.class, ProductJsonCache.class,
+        StockService.class, HotStockService.class, StockMovementRecorder.class,
+        SkuStockRepository.class, StockLedgerRepository.class})
+class ProductServiceQueryCountTest {
+    private static final int PRODUCTS = 12;
+    private static final int VARIANTS_PER_PRODUCT = 3;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = Product.builder()
+                    .name("Product " + i)
+                    .description("Description " + i)
+                    .variants(new ArrayList<>())
+                    .build();
+            for (int j = 0; j < VARIANTS_PER_PRODUCT; j++) {
+                ProductVariant variant = ProductVariant.builder()
+                        .product(product)
+                        .variantName("Variant " + j)
+                        .quantityPerUnit(j + 1)
+                        .unitType(j == 2 ? "box" : "kg")
+                        .build();
+                variant.setSku(Sku.builder().productVariant(variant).price(10.0 + i + j).stockQuantity(i % 3 == 0 ? 0 : 5).build());
+                product.getVariants().add(variant);
+            }
+            product.refreshAggregates();
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listLoadsProductGraphInOneQuery() {
+        List<ProductResponse> products = productService.list("", ProductView.FULL);
+
+        assertEquals(PRODUCTS, products.size());
+        assertTrue(products.stream().allMatch(p -> p.getVariants().size() == VARIANTS_PER_PRODUCT));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pageLoadsProductGraphInTwoQueries() {
+        ProductPageRequest request = new ProductPageRequest();
+        request.setSize(5);
+
+        var page = productService.page(request);
+
+        assertEquals(5, page.getData().size());
+        assertTrue(page.getData().stream().allMatch(p -> p.getVariants().get(0).getSku() != null));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pageSortsAndFiltersOnProductAggregates() {
+        ProductPageRequest request = new ProductPageRequest();
+        request.setSize(3);
+        request.setSort("-price");
+        request.setInStock(true);
+
+        List<Double> prices = new ArrayList<>();
+        String cursor = null;
+        do {
+            request.setCursor(cursor);
+            var page = productService.page(request);
+            page.getData().forEach(p -> prices.add(p.getVariants().stream()
+                    .mapToDouble(v -> v.getSku().getPrice()).min().orElseThrow()));
+            cursor = page.getPageInfo().getNext();
+        } while (cursor != null);
+
+        assertEquals(List.of(21.0, 20.0, 18.0, 17.0, 15.0, 14.0, 12.0, 11.0), prices);
+    }
+
+    @Test
+    void pageFiltersOnVariantsAndCountsFacetsInOneExtraQuery() {
+        ProductPageRequest request = new ProductPageRequest();
+        request.setUnitType(List.of("box"));
+        request.setMaxPrice(15.0);
+        request.setWithFacets(true);
+
+        var page = productService.page(request);
+
+        assertEquals(List.of("Product 0", "Product 1", "Product 2", "Product 3"),
+                page.getData().stream().map(ProductResponse::getName).toList());
+        assertEquals(List.of(new FacetCount("box", 4), new FacetCount("kg", 11)), page.getFacets().get("unitType"));
+        assertEquals(List.of(new FacetCount("3", 4)), page.getFacets().get("quantityPerUnit"));
+        assertEquals(List.of(new FacetCount("10-20", 4)), page.getFacets().get("price"));
+        assertEquals(List.of(new FacetCount("false", 2), new FacetCount("true", 2)), page.getFacets().get("inStock"));
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void inStockFilterMatchesTheInStockFacet() {
+        // Product 1 stays in stock overall but now has one sold-out variant.
+        jdbcTemplate.update("""
+                UPDATE sku SET stock_quantity = 0 WHERE variant_id IN (SELECT v.id FROM product_variant v
+                JOIN product p ON p.id = v.product_id WHERE p.name = 'Product 1' AND v.variant_name = 'Variant 0')""");
+        ProductPageRequest request = new ProductPageRequest();
+        request.setInStock(false);
+        request.setWithFacets(true);
+
+        var page = productService.page(request);
+
+        assertEquals(List.of("Product 0", "Product 1", "Product 3", "Product 6", "Product 9"),
+                page.getData().stream().map(ProductResponse::getName).toList());
+        assertEquals(List.of(new FacetCount("false", 13), new FacetCount("true", 23)), page.getFacets().get("inStock"));
+    }
+
+    @Test
+    void broadSearchNeverBindsMoreThanTheIdLimit() {
+        searchIndex.rebuild();
+        statistics.clear();
+
+        List<ProductResponse> all = productService.list("Product", ProductView.FULL);
+        long listQueries = statistics.getPrepareStatementCount();
+        ProductPageRequest request = new ProductPageRequest();
+        request.setQ("Product");
+        request.setInStock(true);
+        request.setWithTotal(true);
+        var page = productService.page(request);
+
+        assertEquals(PRODUCTS, all.size());
+        // 12 hits with at most 5 ids per statement.
+        assertEquals(3, listQueries);
+        assertEquals(8L, page.getPageInfo().getTotalCount());
+    }
+
+    @Test
+    void updateCountsEachStockChangeOnceInTheProductTotal() {
+        int productId = jdbcTemplate.queryForObject("SELECT id FROM product WHERE name = 'Product 1'", Integer.class);
+        ProductResponse before = productService.get(productId, ProductView.FULL);
+        UpdateProductRequest request = new UpdateProductRequest();
+        request.setName("Product 1");
+        request.setVariants(new ArrayList<>());
+        // 5 -> 10 on the first variant, the second kept, the third removed (-5), one added with 7.
+        request.getVariants().add(variantRequest(before.getVariants().get(0).getId(), 10));
+        request.getVariants().add(variantRequest(before.getVariants().get(1).getId(), 5));
+        request.getVariants().add(variantRequest(null, 7));
+
+        productService.update(productId, request);
+
+        assertEquals(10 + 5 + 7, jdbcTemplate.queryForObject(
+                "SELECT total_stock FROM product WHERE id = ?", Integer.class, productId));
+        assertEquals(10 + 5 + 7, jdbcTemplate.queryForObject("""
+                SELECT SUM(s.stock_quantity) FROM sku s JOIN product_variant v ON v.id = s.variant_id
+                WHERE v.product_id = ?""", Integer.class, productId));
+        assertEquals(7, jdbcTemplate.queryForObject("""
+                SELECT m.delta FROM stock_movement m JOIN sku s ON s.id = m.sku_id
+                JOIN product_variant v ON v.id = s.variant_id
+                WHERE v.product_id = ? AND m.reason = 'INITIAL'""", Integer.class, productId));
+    }
+
+    private static UpdateProductVariantRequest variantRequest(Integer id, int stock) {
+        UpdateSkuRequest sku = new UpdateSkuRequest();
+        sku.setPrice(12.0);
+        sku.setStockQuantity(stock);
+        UpdateProductVariantRequest variant = new UpdateProductVariantRequest();
+        variant.setId(id);
+        variant.setVariantName("Variant");
+        variant.setQuantityPerUnit(1);
+        variant.setUnitType("kg");
+        variant.setSku(sku);
+        return variant;
+    }
+}
@@ -0,0 +1,120 @@
+package com.commerce.service;
+
+import com.commerce.cache.RefreshTokenCache;
+import com.commerce.cache.RefreshTokenCache.StoredRefreshToken;
+import com.commerce.model.entity.Role;
+import com.commerce.model.entity.User;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RefreshTokenService.class, RefreshTokenCache.class, JwtService.class})
+class RefreshTokenServiceTest {
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM refresh_token");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void storesHashAndServesRefreshesFromMemory() {
+        User user = persistUser();
+        String token = "header." + "x".repeat(300) + ".signature";
+        Instant expiresAt = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        refreshTokenService.save(user, token, expiresAt);
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        StoredRefreshToken stored = refreshTokenService.find(token);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(user.getId(), stored.userId());
+        assertEquals(expiresAt, stored.expiresAt());
+        assertEquals(43, jdbcTemplate.queryForObject("SELECT token_hash FROM refresh_token", String.class).length());
+
+        refreshTokenService.delete(token);
+        refreshTokenService.delete(token);
+
+        AppException deleted = assertThrows(AppException.class, () -> refreshTokenService.find(token));
+        assertEquals(ErrorCode.INVALID_REFRESH_TOKEN, deleted.getErrorCode());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_token", Integer.class));
+    }
+
+    @Test
+    void keepsSessionsFromLoginsInTheSameSecondApart() {
+        User user = persistUser();
+        String first = jwtService.generateRefreshToken(user);
+        String second = jwtService.generateRefreshToken(user);
+
+        refreshTokenService.save(user, first, jwtService.extractExpirationInstant(first));
+        refreshTokenService.save(user, second, jwtService.extractExpirationInstant(second));
+        refreshTokenService.delete(first);
+
+        assertNotEquals(first, second);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_token", Integer.class));
+        assertEquals(user.getId(), refreshTokenService.find(second).userId());
+    }
+
+    @Test
+    void lookupRacingLogoutDoesNotKeepTheTokenCached() {
+        User user = persistUser();
+        String token = jwtService.generateRefreshToken(user);
+        refreshTokenService.save(user, token, jwtService.extractExpirationInstant(token));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            refreshTokenService.delete(token);
+            // Another request reads the still-committed row before the DELETE commits.
+            CompletableFuture.runAsync(() -> refreshTokenService.find(token)).join();
+        });
+
+        AppException deleted = assertThrows(AppException.class, () -> refreshTokenService.find(token));
+        assertEquals(ErrorCode.INVALID_REFRESH_TOKEN, deleted.getErrorCode());
+    }
+
+    private User persistUser() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            User u = User.builder().username("alice").role(Role.ROLE_USER).build();
+            entityManager.persist(u);
+            return u;
+        });
+    }
+}
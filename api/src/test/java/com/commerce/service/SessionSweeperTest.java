@@ -0,0 +1,93 @@
+package com.commerce.service;
+
+import com.commerce.model.response.SessionSweepStatsResponse;
+import com.commerce.repository.ExpiredSessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "application.session.sweep.chunk-size=3",
+        "application.session.sweep.pause-ms=0"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SessionSweeper.class, ExpiredSessionRepository.class})
+class SessionSweeperTest {
+    @Autowired
+    private SessionSweeper sessionSweeper;
+
+    @Autowired
+    private ExpiredSessionRepository expiredSessionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM refresh_token");
+        jdbcTemplate.update("DELETE FROM oauth_token");
+        jdbcTemplate.update("DELETE FROM revoked_token");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void purgesExpiredRowsInChunks() {
+        jdbcTemplate.update("INSERT INTO users (username, role, token_epoch) VALUES ('alice', 'ROLE_USER', 0)");
+        int userId = jdbcTemplate.queryForObject("SELECT id FROM users", Integer.class);
+        Instant now = Instant.now();
+        for (int i = 0; i < 9; i++) {
+            Instant expiresAt = now.plus(i < 7 ? -i - 1 : i, ChronoUnit.HOURS);
+            jdbcTemplate.update("INSERT INTO refresh_token (token_hash, user_id, expiration_time, created_at) VALUES (?, ?, ?, ?)",
+                    "hash-" + i, userId, Timestamp.from(expiresAt), Timestamp.from(now));
+        }
+        jdbcTemplate.update("INSERT INTO oauth_token (user_id, access_token, expires_at, created_at, updated_at) VALUES (?, 'a', ?, ?, ?)",
+                userId, Timestamp.from(now.minus(1, ChronoUnit.DAYS)), Timestamp.from(now), Timestamp.from(now));
+
+        jdbcTemplate.update("INSERT INTO revoked_token (token_id, expires_at) VALUES ('expired', ?), ('live', ?)",
+                Timestamp.from(now.minusSeconds(1)), Timestamp.from(now.plusSeconds(600)));
+
+        assertEquals(9, sessionSweeper.sweep());
+        assertEquals(0, sessionSweeper.sweep());
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_token", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM oauth_token", Integer.class));
+        SessionSweepStatsResponse stats = sessionSweeper.stats();
+        assertEquals(2, stats.getRuns());
+        assertEquals(7, stats.getRefreshTokensPurged());
+        assertEquals(1, stats.getOauthTokensPurged());
+        assertEquals(1, stats.getRevokedTokensPurged());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM revoked_token", Integer.class));
+        assertEquals(5 + 3, stats.getChunks());
+        assertEquals(0, stats.getLastRunPurged());
+    }
+
+    @Test
+    void deletesTheOldestExpiredRowsFirst() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO revoked_token (token_id, expires_at) VALUES (?, ?)",
+                    "token-" + i, Timestamp.from(now.minus(i + 1, ChronoUnit.HOURS)));
+        }
+
+        assertEquals(3, expiredSessionRepository.deleteExpiredRevokedTokens(now, 3));
+
+        assertEquals(List.of("token-0", "token-1"),
+                jdbcTemplate.queryForList("SELECT token_id FROM revoked_token ORDER BY token_id", String.class));
+    }
+}
@@ -0,0 +1,146 @@
+package com.commerce.service;
+
+import com.commerce.cache.ProductCache;
+import com.commerce.cache.ProductJsonCache;
+import com.commerce.model.entity.Product;
+import com.commerce.model.entity.ProductVariant;
+import com.commerce.model.entity.Sku;
+import com.commerce.model.entity.StockMovement;
+import com.commerce.model.entity.StockMovementReason;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.request.StockItemRequest;
+import com.commerce.repository.SkuStockRepository;
+import com.commerce.repository.StockLedgerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "application.stock.ledger.compact-range-size=16")
+@Import({StockService.class, HotStockService.class, StockMovementRecorder.class, StockLedgerCompactor.class,
+        SkuStockRepository.class, StockLedgerRepository.class, ProductCache.class, ProductJsonCache.class})
+class StockLedgerTest {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockMovementRecorder stockMovementRecorder;
+
+    @Autowired
+    private StockLedgerCompactor stockLedgerCompactor;
+
+    @Autowired
+    private StockLedgerRepository stockLedgerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int skuId;
+
+    @BeforeEach
+    void setUp() {
+        Product product = new TransactionTemplate(transactionManager).execute(status -> {
+            Product p = Product.builder().name("Ledger").variants(new ArrayList<>()).build();
+            ProductVariant variant = ProductVariant.builder()
+                    .product(p)
+                    .variantName("Box")
+                    .quantityPerUnit(1)
+                    .unitType("box")
+                    .build();
+            variant.setSku(Sku.builder().productVariant(variant).price(10.0).stockQuantity(20).build());
+            p.getVariants().add(variant);
+            p.refreshAggregates();
+            entityManager.persist(p);
+            return p;
+        });
+        skuId = product.getVariants().getFirst().getSku().getId();
+        stockMovementRecorder.record(Map.of(skuId, 20), StockMovementReason.INITIAL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM stock_snapshot");
+        jdbcTemplate.update("DELETE FROM stock_movement");
+        jdbcTemplate.update("DELETE FROM sku");
+        jdbcTemplate.update("DELETE FROM product_variant");
+        jdbcTemplate.update("DELETE FROM product");
+    }
+
+    @Test
+    void stockChangesAreRecordedAndQueryableAsOfAnyTime() throws Exception {
+        stockService.reserve(List.of(new StockItemRequest(skuId, 5)));
+        Instant afterReserve = Instant.now();
+        Thread.sleep(5);
+
+        stockLedgerCompactor.compact();
+        stockService.release(List.of(new StockItemRequest(skuId, 2)));
+        stockService.adjust(new TreeMap<>(Map.of(skuId, -7)));
+        assertThrows(AppException.class, () -> stockService.adjust(new TreeMap<>(Map.of(skuId, -11))));
+
+        assertEquals(List.of(StockMovementReason.INITIAL, StockMovementReason.RESERVE,
+                        StockMovementReason.RELEASE, StockMovementReason.ADJUST),
+                stockService.movements(skuId, 0, 10).stream().map(m -> m.getReason()).toList());
+        assertEquals(15, stockService.quantityAsOf(skuId, afterReserve).getQuantity());
+        assertEquals(10, stockService.quantityAsOf(skuId, Instant.now()).getQuantity());
+        assertEquals(10, jdbcTemplate.queryForObject("SELECT stock_quantity FROM sku WHERE id = ?", Integer.class, skuId));
+    }
+
+    @Test
+    void compactionFoldsEverySkuRangeIntoSnapshots() {
+        Instant now = Instant.now();
+        List<StockMovement> movements = new ArrayList<>();
+        IntStream.rangeClosed(1, 200).forEach(sku -> {
+            movements.add(movement(100_000 + sku, sku, now));
+            movements.add(movement(100_000 + sku, -1, now));
+        });
+        stockLedgerRepository.insertMovements(movements);
+
+        int first = stockLedgerCompactor.compact();
+        stockLedgerRepository.insertMovements(List.of(movement(100_007, 3, now)));
+        int second = stockLedgerCompactor.compact();
+
+        assertEquals(201, first);
+        assertEquals(1, second);
+        assertEquals(199, stockLedgerRepository.findQuantityAsOf(100_200, Instant.now()));
+        assertEquals(9, stockLedgerRepository.findQuantityAsOf(100_007, Instant.now()));
+        assertEquals(9, jdbcTemplate.queryForObject(
+                "SELECT quantity FROM stock_snapshot WHERE sku_id = 100007 ORDER BY last_movement_id DESC LIMIT 1",
+                Integer.class));
+    }
+
+    private static StockMovement movement(int skuId, int delta, Instant at) {
+        return StockMovement.builder().skuId(skuId).delta(delta).reason(StockMovementReason.ADJUST).createdAt(at).build();
+    }
+}
@@ -0,0 +1,151 @@
+package com.commerce.service;
+
+import com.commerce.cache.ProductCache;
+import com.commerce.cache.ProductJsonCache;
+import com.commerce.model.entity.Product;
+import com.commerce.model.entity.ProductVariant;
+import com.commerce.model.entity.Sku;
+import com.commerce.model.exception.AppException;
+import com.commerce.model.exception.ErrorCode;
+import com.commerce.model.request.StockItemRequest;
+import com.commerce.repository.SkuStockRepository;
+import com.commerce.repository.StockLedgerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StockService.class, HotStockService.class, StockMovementRecorder.class,
+        SkuStockRepository.class, StockLedgerRepository.class, ProductCache.class, ProductJsonCache.class})
+class StockServiceConcurrencyTest {
+    private static final int REQUESTS = 400;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int skuA;
+    private int skuB;
+
+    @BeforeEach
+    void setUp() {
+        Product product = new TransactionTemplate(transactionManager).execute(status -> {
+            Product p = Product.builder().name("Hot product").variants(new ArrayList<>()).build();
+            p.getVariants().add(variant(p, "A", 100));
+            p.getVariants().add(variant(p, "B", 50));
+            p.refreshAggregates();
+            entityManager.persist(p);
+            return p;
+        });
+        skuA = product.getVariants().get(0).getSku().getId();
+        skuB = product.getVariants().get(1).getSku().getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM stock_movement");
+        jdbcTemplate.update("DELETE FROM sku");
+        jdbcTemplate.update("DELETE FROM product_variant");
+        jdbcTemplate.update("DELETE FROM product");
+    }
+
+    @Test
+    void parallelReservationsNeverOversell() throws Exception {
+        AtomicInteger singles = new AtomicInteger();
+        AtomicInteger pairs = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            boolean pair = i % 2 == 1;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    if (pair) {
+                        // Listed in descending id order on purpose; the service must sort before locking.
+                        stockService.reserve(List.of(new StockItemRequest(skuB, 1), new StockItemRequest(skuA, 1)));
+                        pairs.incrementAndGet();
+                    } else {
+                        stockService.reserve(List.of(new StockItemRequest(skuA, 1)));
+                        singles.incrementAndGet();
+                    }
+                } catch (AppException e) {
+                    assertEquals(ErrorCode.INSUFFICIENT_STOCK, e.getErrorCode());
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int stockA = stock(skuA);
+        int stockB = stock(skuB);
+        assertEquals(0, stockA);
+        assertEquals(100, singles.get() + pairs.get());
+        assertEquals(50 - pairs.get(), stockB);
+        assertEquals(REQUESTS - 100, rejected.get());
+        assertEquals(stockA + stockB, jdbcTemplate.queryForObject("SELECT total_stock FROM product", Integer.class));
+        assertEquals(stockA + stockB > 0, jdbcTemplate.queryForObject("SELECT in_stock FROM product", Boolean.class));
+    }
+
+    @Test
+    void failedLineRollsBackWholeReservation() {
+        assertThrows(AppException.class, () -> stockService.reserve(List.of(
+                new StockItemRequest(skuA, 1), new StockItemRequest(skuB, 51))));
+
+        assertEquals(100, stock(skuA));
+        assertEquals(50, stock(skuB));
+        assertEquals(150, jdbcTemplate.queryForObject("SELECT total_stock FROM product", Integer.class));
+    }
+
+    private int stock(int skuId) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM sku WHERE id = ?", Integer.class, skuId);
+    }
+
+    private static ProductVariant variant(Product product, String name, int stock) {
+        ProductVariant variant = ProductVariant.builder()
+                .product(product)
+                .variantName(name)
+                .quantityPerUnit(1)
+                .unitType("kg")
+                .build();
+        variant.setSku(Sku.builder().productVariant(variant).price(10.0).stockQuantity(stock).build());
+        return variant;
+    }
+}
@@ -10,5 +10,6 @@ export const API_CONSTANTS = {
         LOGOUT: '/auth/logout',
         REFRESH: '/auth/refresh-token',
         SIGNUP: '/auth/signup',
+        USERNAME_AVAILABILITY: '/auth/username-availability',
     }
 };
\ No newline at end of file
@@ -1,4 +1,4 @@
-import {useState, type FormEvent} from "react"
+import {useEffect, useState, type FormEvent} from "react"
 import {useNavigate} from "react-router-dom"
 import {Eye, EyeOff} from "lucide-react"
 import {useAuth} from "@/hooks/useAuth.ts"
@@ -8,6 +8,14 @@ import {Button} from "@/components/ui/button.tsx"
 import parseError from "@/utils/error-utils.ts";
 import {toast} from "sonner";
 import {AxiosError} from "axios";
+import useDebounce from "@/hooks/useDebounce.ts";
+import {authAxiosInstance} from "@/api/axios-instance.ts";
+import {API_CONSTANTS} from "@/constants/api.ts";
+
+interface UsernameAvailability {
+    username: string
+    available: boolean
+}
 
 export default function SignupPage() {
     const [username, setUsername] = useState("")
@@ -17,10 +25,39 @@ export default function SignupPage() {
     const [showConfirmPassword, setShowConfirmPassword] = useState(false)
     const [error, setError] = useState("")
     const [isLoading, setIsLoading] = useState(false)
+    const [takenUsername, setTakenUsername] = useState<string | null>(null)
+    const debouncedUsername = useDebounce(username.trim(), 400)
 
     const navigate = useNavigate()
     const {signup} = useAuth()
 
+    // Checked once typing pauses; a failed check just leaves the field unmarked and signup decides.
+    useEffect(() => {
+        if (!debouncedUsername) {
+            setTakenUsername(null)
+            return
+        }
+        let cancelled = false
+        authAxiosInstance.get<UsernameAvailability>(API_CONSTANTS.AUTH_ENDPOINT.USERNAME_AVAILABILITY, {
+            params: {username: debouncedUsername},
+        })
+            .then((response) => {
+                if (!cancelled) {
+                    setTakenUsername(response.data.available ? null : response.data.username)
+                }
+            })
+            .catch(() => {
+                if (!cancelled) {
+                    setTakenUsername(null)
+                }
+            })
+        return () => {
+            cancelled = true
+        }
+    }, [debouncedUsername])
+
+    const usernameTaken = takenUsername !== null && takenUsername === username.trim()
+
     const handleSubmit = async (e: FormEvent) => {
         e.preventDefault()
 
@@ -76,6 +113,7 @@ export default function SignupPage() {
                             type="text"
                             value={username}
                             onChange={(e) => setUsername(e.target.value)}
+                            error={usernameTaken ? "Username is already taken" : undefined}
                             required
                         />
 
@@ -123,7 +161,7 @@ export default function SignupPage() {
                             </div>
                         </div>
 
-                        <Button type="submit" className="w-full" variant="default" disabled={isLoading}>
+                        <Button type="submit" className="w-full" variant="default" disabled={isLoading || usernameTaken}>
                             {isLoading ? "Creating account..." : "Sign Up"}
                         </Button>
                     </form>